@@ -2,7 +2,7 @@ from fastapi import FastAPI
 from fastapi.responses import JSONResponse
 from minio import Minio
 from pydantic import BaseModel
-from typing import Optional, Tuple, Any, Dict
+from typing import Optional, Tuple, Any, Dict, List
 from io import BytesIO
 import json
 import os
@@ -28,7 +28,8 @@ minio_client = Minio(
 # DTO
 class EnrichmentRequest(BaseModel):
     raw_file_key: str
-    processed_file_key: str
+    processed_file_key: Optional[str] = None
+    bbox: Optional[List[float]] = None
 
 # Патч для отключения flash_attn в динамических импортерах HF (Florence-2)
 def _patch_hf_dynamic_imports():
@@ -164,6 +165,12 @@ def load_model_on_startup():
     app.state.ocr_service = OCRService()
     print("OCR модель успешно загружена и готова к работе")
 
+@app.get("/health")
+async def health():
+    if getattr(app.state, "ocr_service", None) is None:
+        return JSONResponse(status_code=503, content={"status": "loading"})
+    return {"status": "ok"}
+
 @app.post("/enrich")
 async def enrich(request: EnrichmentRequest):
     import traceback
@@ -179,9 +186,13 @@ async def enrich(request: EnrichmentRequest):
         img = get_image_from_minio(raw_bucket, request.raw_file_key)
         print(f"Step 1: Image loaded. Size: {img.size}")
 
-        print(f"Step 2: Fetching meta from minio: bucket={processed_bucket}, key={request.processed_file_key}")
-        meta = get_json_from_minio(processed_bucket, request.processed_file_key)
-        print(f"Step 2: Meta loaded: {meta}")
+        if request.bbox is not None:
+            meta = {"bbox": request.bbox}
+            print(f"Step 2: Using bbox from request: {meta}")
+        else:
+            print(f"Step 2: Fetching meta from minio: bucket={processed_bucket}, key={request.processed_file_key}")
+            meta = get_json_from_minio(processed_bucket, request.processed_file_key)
+            print(f"Step 2: Meta loaded: {meta}")
         bbox = extract_bbox(meta)
         print(f"Step 2: Extracted bbox: {bbox}")
 
@@ -7,6 +7,7 @@ import { apiService, ApiPreprocessData } from "@/lib/api";
 interface ImageWithBboxProps {
   originalImageId: number;
   preprocessFileId: number | null;
+  bbox?: [number, number, number, number] | null;
   toolName: string;
   confidence: number;
   className?: string;
@@ -15,6 +16,7 @@ interface ImageWithBboxProps {
 export const ImageWithBbox = ({
   originalImageId,
   preprocessFileId,
+  bbox,
   toolName,
   confidence,
   className = ""
@@ -40,7 +42,7 @@ export const ImageWithBbox = ({
         URL.revokeObjectURL(imageUrl);
       }
     };
-  }, [originalImageId, preprocessFileId]);
+  }, [originalImageId, preprocessFileId, bbox]);
 
   const loadImageData = async () => {
     try {
@@ -51,8 +53,10 @@ export const ImageWithBbox = ({
       const imgUrl = await apiService.getFileFromMinIO(originalImageId);
       setImageUrl(imgUrl);
 
-      // Load preprocess data if available
-      if (preprocessFileId) {
+      // Detections stored in the database come with bbox inline
+      if (bbox) {
+        setPreprocessData({ bbox } as ApiPreprocessData);
+      } else if (preprocessFileId) {
         try {
           const data = await apiService.getPreprocessDataFromMinIO(preprocessFileId);
           setPreprocessData(data);
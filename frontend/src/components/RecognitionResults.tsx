@@ -461,6 +461,7 @@ export const RecognitionResults = ({ orderNumber, orderId, actionType, jobId, on
                                   <ImageWithBbox
                                     originalImageId={item.originalImageId}
                                     preprocessFileId={item.preprocessFileId || null}
+                                    bbox={item.detailedResult?.bbox}
                                     toolName={item.name}
                                     confidence={item.detailedResult?.confidence || 0}
                                     className="w-full"
@@ -40,7 +40,7 @@ interface ClassificationResult {
     bucketName: string;
     filePath: string;
     fileName: string;
-  };
+  } | null;
   originalFile: {
     id: number;
     packageId: {
@@ -57,6 +57,7 @@ interface ClassificationResult {
   confidence: number;
   createdAt: string;
   marking: string | null;
+  bbox?: [number, number, number, number] | null;
 }
 
 // Интерфейс для сырых файлов
@@ -411,7 +412,8 @@ export const TestModelResults = ({ jobId, searchMarking, onBack, onComplete }: T
                                 </div>
                                 <ImageWithBbox
                                   originalImageId={result.originalFile.id}
-                                  preprocessFileId={result.file.id}
+                                  preprocessFileId={result.file?.id ?? null}
+                                  bbox={result.bbox}
                                   toolName={result.tool.name}
                                   confidence={result.confidence}
                                   className="w-full"
@@ -138,11 +138,12 @@ export interface ApiRecognitionResultDetailed {
   id: number;
   job: ApiJobInfo;
   tool: ApiTool;
-  file: ApiFileInfo;
+  file: ApiFileInfo | null;
   originalFile: ApiFileInfo;
   confidence: number;
   createdAt: string;
   marking: string | null;
+  bbox?: [number, number, number, number] | null;
 }
 
 export interface ApiPreprocessData {
@@ -295,14 +296,25 @@ class ApiService {
   }
 
   async uploadFile(jobId: number, file: File, searchMarking: boolean = false) {
-    const formData = new FormData();
-    formData.append('file', file);
-    formData.append('searchMarking', searchMarking.toString());
-
-    const response = await fetch(`${API_BASE_URL}/jobs/${jobId}/files`, {
-      method: 'POST',
-      body: formData,
-    });
+    let response: Response;
+    if (file.name.toLowerCase().endsWith('.mp4')) {
+      // Видео передаём потоком, без multipart-буферизации на стороне сервера
+      const params = new URLSearchParams({ fileName: file.name, searchMarking: searchMarking.toString() });
+      response = await fetch(`${API_BASE_URL}/jobs/${jobId}/files/stream?${params}`, {
+        method: 'PUT',
+        headers: { 'Content-Type': file.type || 'application/octet-stream' },
+        body: file,
+      });
+    } else {
+      const formData = new FormData();
+      formData.append('file', file);
+      formData.append('searchMarking', searchMarking.toString());
+
+      response = await fetch(`${API_BASE_URL}/jobs/${jobId}/files`, {
+        method: 'POST',
+        body: formData,
+      });
+    }
     
     if (!response.ok) {
       const errorText = await response.text().catch(() => 'Unknown error');
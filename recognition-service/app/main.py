@@ -31,6 +31,7 @@ minio_client = Minio(
 )
 class KeyRequest(BaseModel):
     key: str
+    persist_detections: bool = True
 
 
 @app.on_event("startup")
@@ -38,6 +39,12 @@ async def startup_event():
     global iso_calibrator
     iso_calibrator = joblib.load('model/isotonic_reg.pkl')
 
+@app.get("/health")
+async def health():
+    if globals().get("iso_calibrator") is None:
+        raise HTTPException(status_code=503, detail="Model is not loaded")
+    return {"status": "ok"}
+
 def calibrate_score(conf):
     cal_score = iso_calibrator.transform([conf])[0]
     return cal_score
@@ -96,13 +103,14 @@ async def recognize(request: KeyRequest):
                 data_bytes = json.dumps(detection_obj, ensure_ascii=False).encode("utf-8")
                 object_key = detection_obj["object_key"]
 
-                minio_client.put_object(
-                    bucket_name=bucket_processed,
-                    object_name=object_key,
-                    data=BytesIO(data_bytes),
-                    length=len(data_bytes),
-                    content_type="application/json"
-                )
+                if request.persist_detections:
+                    minio_client.put_object(
+                        bucket_name=bucket_processed,
+                        object_name=object_key,
+                        data=BytesIO(data_bytes),
+                        length=len(data_bytes),
+                        content_type="application/json"
+                    )
 
                 preprocess_results[object_key] = {
                     "microClass": micro_class,
@@ -0,0 +1,48 @@
+-- Поиск обработанных файлов по исходному ключу на таблице minio_file из 10M строк.
+-- Запуск: psql -h localhost -p 5454 -U postgres -d aerodb -f benchmark/minio_file_prefix_lookup.sql
+-- Данные создаются в отдельной схеме bench и удаляются в конце.
+
+\timing on
+
+drop schema if exists bench cascade;
+create schema bench;
+create table bench.minio_file (like public.minio_file including defaults including indexes);
+
+-- 100 000 job: по 20 исходных изображений и по 4 обработанных объекта на каждое
+insert into bench.minio_file (package_id, created_at, bucket_name, file_path, file_name)
+select j, now(), 'bucket-raw', j || '/file_' || f || '.jpg', 'file_' || f || '.jpg'
+from generate_series(1, 100000) j, generate_series(1, 20) f;
+
+insert into bench.minio_file (package_id, created_at, bucket_name, file_path, file_name)
+select j, now(), 'bucket-processed', j || '/file_' || f || '/tool_' || d || '.json', 'tool_' || d || '.json'
+from generate_series(1, 100000) j, generate_series(1, 20) f, generate_series(1, 4) d;
+
+vacuum analyze bench.minio_file;
+
+-- До: запросы, которые генерировали findByFilePathContaining*
+explain (analyze, buffers)
+select * from bench.minio_file
+where file_path like '%50000/file_7%' and bucket_name = 'bucket-processed';
+
+explain (analyze, buffers)
+select * from bench.minio_file
+where package_id = 50000 and bucket_name = 'bucket-processed' and file_path like '%50000/file_7%';
+
+-- Префиксный запрос без индекса text_pattern_ops
+explain (analyze, buffers)
+select * from bench.minio_file
+where bucket_name = 'bucket-processed' and file_path like '50000/file_7/%';
+
+create index on bench.minio_file (bucket_name, file_path text_pattern_ops);
+analyze bench.minio_file;
+
+-- После: findByBucketNameAndFilePathStartingWith / findByPackageIdAndBucketNameAndFilePathStartingWith
+explain (analyze, buffers)
+select * from bench.minio_file
+where bucket_name = 'bucket-processed' and file_path like '50000/file\_7/%' escape '\';
+
+explain (analyze, buffers)
+select * from bench.minio_file
+where package_id = 50000 and bucket_name = 'bucket-processed' and file_path like '50000/file\_7/%' escape '\';
+
+drop schema bench cascade;
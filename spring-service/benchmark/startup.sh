@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Сравнение времени запуска и RSS spring-service в режимах jar, extracted, cds, cds+aot.
+# Требует собранный с -Paot jar и доступные Postgres/MinIO (переменные окружения как в docker-compose).
+set -euo pipefail
+
+JAR=${1:-target/toolspredict-0.0.1-SNAPSHOT.jar}
+RUNS=${RUNS:-5}
+JAVA=${JAVA:-java}
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+TRAINING_OPTS="-Dspring.context.exit=onRefresh -Dintegrations.startup.migrate=false \
+-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false \
+-Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP="$WORK/app/$(basename "$JAR")"
+
+"$JAVA" -XX:ArchiveClassesAtExit="$WORK/jvm.jsa" $TRAINING_OPTS -jar "$APP" > "$WORK/train-jvm.log" 2>&1 || true
+"$JAVA" -XX:ArchiveClassesAtExit="$WORK/aot.jsa" -Dspring.aot.enabled=true $TRAINING_OPTS -jar "$APP" > "$WORK/train-aot.log" 2>&1 || true
+
+measure() {
+    local mode=$1; shift
+    local log="$WORK/$mode.log"
+    "$JAVA" "$@" > "$log" 2>&1 &
+    local pid=$!
+    local started=""
+    for _ in $(seq 1 600); do
+        started=$(grep -oE 'Started [A-Za-z]+ in [0-9.]+ seconds \(process running for [0-9.]+\)' "$log" || true)
+        [ -n "$started" ] && break
+        if ! kill -0 "$pid" 2> /dev/null; then break; fi
+        sleep 0.1
+    done
+    local rss
+    rss=$(awk '/VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status" 2> /dev/null || echo "-")
+    kill "$pid" 2> /dev/null || true
+    wait "$pid" 2> /dev/null || true
+    if [ -z "$started" ]; then
+        echo "$mode: запуск не удался, см. $log" >&2
+        cp "$log" "./startup-$mode.log"
+        return
+    fi
+    local context process
+    context=$(echo "$started" | sed -E 's/.* in ([0-9.]+) seconds.*/\1/')
+    process=$(echo "$started" | sed -E 's/.*running for ([0-9.]+)\)/\1/')
+    printf '%-10s %8s %8s %8s\n' "$mode" "$context" "$process" "$rss"
+}
+
+printf '%-10s %8s %8s %8s\n' "mode" "context" "process" "rss_mb"
+for run in $(seq 1 "$RUNS"); do
+    measure jar -jar "$JAR"
+    measure extracted -jar "$APP"
+    measure cds -XX:SharedArchiveFile="$WORK/jvm.jsa" -jar "$APP"
+    measure cds-aot -XX:SharedArchiveFile="$WORK/aot.jsa" -Dspring.aot.enabled=true -jar "$APP"
+done
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Время записи пачки детекций (logClassificationResults) и импорта заказа (createOrder) в профилях default и perf.
+# Требует доступный Postgres (POSTGRES_URL, по умолчанию localhost:5454); MinIO не нужен.
+# Параметры: ROUNDS (4), DETECTIONS (500), ORDER_ITEMS (300).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+MVN=${MVN:-./mvnw}
+
+for profile in default perf; do
+    echo "== $profile"
+    "$MVN" -B -q test -Dtest=WriteBatchingBenchmarkTests -Dsurefire.failIfNoSpecifiedTests=false \
+        -Dbenchmark=true -Dbenchmark.rounds="${ROUNDS:-4}" -Dbenchmark.detections="${DETECTIONS:-500}" \
+        -Dbenchmark.order-items="${ORDER_ITEMS:-300}" -Dspring.profiles.active="$profile" 2>&1 \
+        | grep -aE 'WriteBatchingBenchmarkTests +: [^ ]+ [0-9]+:|ERROR' || true
+done
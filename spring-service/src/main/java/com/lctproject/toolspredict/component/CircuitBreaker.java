@@ -0,0 +1,96 @@
+package com.lctproject.toolspredict.component;
+
+class CircuitBreaker {
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int index;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private long probeStartedAt;
+
+    CircuitBreaker(int slidingWindow, int minimumCalls, double failureRateThreshold, long openNanos) {
+        this.outcomes = new boolean[slidingWindow];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindow);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (now - openedAt < openNanos) return false;
+                state = State.HALF_OPEN;
+                probeStartedAt = now;
+                return true;
+            }
+            default -> {
+                if (now - probeStartedAt < openNanos) return false;
+                probeStartedAt = now;
+                return true;
+            }
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized boolean onFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return true;
+        }
+        if (state == State.OPEN) return false;
+        record(true);
+        if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            open(now);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[index]) failures--;
+        } else {
+            calls++;
+        }
+        outcomes[index] = failure;
+        if (failure) failures++;
+        index = (index + 1) % outcomes.length;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        index = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
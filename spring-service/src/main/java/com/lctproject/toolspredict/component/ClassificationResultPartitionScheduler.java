@@ -0,0 +1,32 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.repository.ClassificationResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClassificationResultPartitionScheduler {
+    private final ClassificationResultRepository classificationResultRepository;
+    private final RetentionProperties retentionProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${retention.partition-cron}")
+    public void ensurePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        try {
+            int created = classificationResultRepository.ensurePartitions(month,
+                    month.plusMonths(retentionProperties.getPartitionMonthsAhead()));
+            if (created > 0) log.info("Созданы секции classification_result: {}", created);
+        } catch (Exception e) {
+            log.error("Ошибка создания секций classification_result: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+import com.lctproject.toolspredict.dto.comparison.ComparisonDecision;
+import com.lctproject.toolspredict.dto.comparison.ComparisonReport;
+import com.lctproject.toolspredict.dto.comparison.ToolDiff;
+import com.lctproject.toolspredict.model.ClassificationResult;
+import com.lctproject.toolspredict.model.Tool;
+import com.lctproject.toolspredict.model.ToolOrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class ComparisonDecisionEngine {
+
+    public ComparisonReport decide(List<ClassificationResult> mergedResults, List<ToolOrderItem> orderedItems,
+                                   ModelConfigSnapshot config) {
+        Map<Long, Tool> tools = new TreeMap<>();
+        Map<Long, Integer> expected = new TreeMap<>();
+        Map<Long, Integer> confident = new TreeMap<>();
+        Map<Long, Integer> uncertain = new TreeMap<>();
+        for (ToolOrderItem item : orderedItems) {
+            tools.putIfAbsent(item.getTool().getId(), item.getTool());
+            expected.merge(item.getTool().getId(), 1, Integer::sum);
+        }
+        for (ClassificationResult result : mergedResults) {
+            Long toolId = result.getTool().getId();
+            tools.putIfAbsent(toolId, result.getTool());
+            boolean isConfident = result.getConfidence() != null && result.getConfidence() >= config.thresholdFor(toolId);
+            (isConfident ? confident : uncertain).merge(toolId, 1, Integer::sum);
+        }
+
+        ComparisonReport report = new ComparisonReport();
+        for (Map.Entry<Long, Tool> entry : tools.entrySet()) {
+            Long toolId = entry.getKey();
+            int expectedCount = expected.getOrDefault(toolId, 0);
+            int confidentCount = confident.getOrDefault(toolId, 0);
+            int uncertainCount = uncertain.getOrDefault(toolId, 0);
+            ToolDiff diff = new ToolDiff()
+                    .setToolId(toolId)
+                    .setToolName(entry.getValue().getName())
+                    .setExpected(expectedCount)
+                    .setDetected(confidentCount)
+                    .setUncertain(uncertainCount)
+                    .setThreshold(config.thresholdFor(toolId));
+            if (confidentCount > expectedCount) {
+                report.getExtra().add(diff.setCount(confidentCount - expectedCount));
+            } else if (confidentCount < expectedCount) {
+                int shortfall = expectedCount - confidentCount;
+                int coveredByUncertain = Math.min(shortfall, uncertainCount);
+                if (coveredByUncertain > 0) report.getUncertain().add(copy(diff).setCount(coveredByUncertain));
+                if (shortfall > coveredByUncertain) report.getMissing().add(diff.setCount(shortfall - coveredByUncertain));
+            }
+        }
+
+        if (!report.getMissing().isEmpty() || !report.getExtra().isEmpty()) {
+            return report.setDecision(ComparisonDecision.MISMATCH)
+                    .setMessage("Обнаружены расхождения. Требуется ручная разметка.");
+        }
+        if (!report.getUncertain().isEmpty()) {
+            return report.setDecision(ComparisonDecision.UNCERTAIN)
+                    .setMessage("Часть инструментов распознана с низкой уверенностью. Требуется подтверждение оператора.");
+        }
+        return report.setDecision(ComparisonDecision.MATCH)
+                .setMessage("Полное совпадение с заказанным набором.");
+    }
+
+    private ToolDiff copy(ToolDiff diff) {
+        return new ToolDiff()
+                .setToolId(diff.getToolId())
+                .setToolName(diff.getToolName())
+                .setExpected(diff.getExpected())
+                .setDetected(diff.getDetected())
+                .setUncertain(diff.getUncertain())
+                .setThreshold(diff.getThreshold());
+    }
+}
@@ -1,14 +1,30 @@
 package com.lctproject.toolspredict.component;
 
-import lombok.Getter;
-import lombok.Setter;
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-@Getter
-@Setter
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 @Component
 public class ConfidenceThresholdConfig {
-    @Value("${model.confidence.threshold}")
-    private double confidenceThreshold;
+    private final AtomicReference<ModelConfigSnapshot> snapshot;
+
+    public ConfidenceThresholdConfig(@Value("${model.confidence.threshold}") double defaultThreshold) {
+        this.snapshot = new AtomicReference<>(new ModelConfigSnapshot(defaultThreshold, Map.of(), MergePolicy.MAX_OCCURRENCES, 0));
+    }
+
+    public ModelConfigSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public double getConfidenceThreshold() {
+        return snapshot.get().confidenceThreshold();
+    }
+
+    public void publish(ModelConfigSnapshot next) {
+        snapshot.accumulateAndGet(next, (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
 }
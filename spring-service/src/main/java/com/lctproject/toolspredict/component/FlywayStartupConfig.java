@@ -0,0 +1,23 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class FlywayStartupConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${integrations.startup.migrate:true}") boolean migrate) {
+        return flyway -> {
+            if (migrate) {
+                flyway.migrate();
+            } else {
+                log.warn("Миграции Flyway при запуске отключены");
+            }
+        };
+    }
+}
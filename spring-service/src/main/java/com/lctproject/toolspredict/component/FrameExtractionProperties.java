@@ -0,0 +1,24 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "integrations.video")
+public class FrameExtractionProperties {
+    private String extractor = "keyframe";
+    private int maxFrames = 8;
+    private double minIntervalSec = 0.5;
+    private double sceneThreshold = 0.25;
+    private double minSharpness = 20.0;
+    private float jpegQuality = 0.95f;
+    private DataSize readBlockSize = DataSize.ofMegabytes(1);
+    private boolean earlyExit = true;
+    private int stableFrames = 2;
+    private int frameBudget = 8;
+}
@@ -0,0 +1,41 @@
+package com.lctproject.toolspredict.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lctproject.toolspredict.dto.comparison.IssuanceAggregate;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class IssuanceAggregateCache {
+    private final Cache<Long, IssuanceAggregate> cache;
+
+    public IssuanceAggregateCache(@Value("${comparison.issuance-cache.max-size:1000}") long maxSize,
+                                  @Value("${comparison.issuance-cache.ttl:6h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public IssuanceAggregate get(Long jobId, String stamp, Supplier<IssuanceAggregate> loader) {
+        IssuanceAggregate cached = cache.getIfPresent(jobId);
+        if (cached != null && cached.stamp().equals(stamp)) return cached;
+        IssuanceAggregate loaded = loader.get();
+        cache.put(jobId, loaded);
+        log.info("Агрегат выдачи job {} загружен в кэш ({} позиций)", jobId, loaded.tools().size());
+        return loaded;
+    }
+
+    @EventListener
+    public void onJobResultsChanged(JobResultsChangedEvent event) {
+        cache.invalidateAll(event.getJobIds());
+    }
+}
@@ -0,0 +1,27 @@
+package com.lctproject.toolspredict.component;
+
+import java.util.Arrays;
+
+class LatencyWindow {
+    private static final int MIN_SAMPLES = 20;
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    synchronized long percentile(double percentile) {
+        if (count < MIN_SAMPLES) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.max(0, Math.min(count - 1, Math.ceil(percentile * count) - 1))];
+    }
+}
@@ -0,0 +1,21 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "integrations.minio.client")
+public class MinioClientProperties {
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofMinutes(5);
+    private Duration writeTimeout = Duration.ofMinutes(5);
+    private int maxIdleConnections = 32;
+    private Duration keepAlive = Duration.ofMinutes(5);
+    private Duration probeTimeout = Duration.ofSeconds(3);
+}
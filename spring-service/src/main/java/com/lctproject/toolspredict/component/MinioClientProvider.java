@@ -0,0 +1,142 @@
+package com.lctproject.toolspredict.component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.MultipartMinioClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component("minio")
+public class MinioClientProvider implements HealthIndicator {
+    private final OkHttpClient httpClient;
+    private final MinioClient client;
+    private final MultipartMinioClient multipartClient;
+    private final MinioClient probeClient;
+    private final List<String> buckets;
+    private volatile boolean bucketsReady = false;
+    private volatile boolean reachable = false;
+    private volatile String lastError = "проверка ещё не выполнялась";
+
+    public MinioClientProvider(MinioClientProperties properties, MeterRegistry meterRegistry,
+                               @Value("${minio.endpoint}") String endpoint,
+                               @Value("${minio.access.key}") String accessKey,
+                               @Value("${minio.secret.key}") String secretKey,
+                               @Value("${integrations.minio.bucket.raw}") String bucketRaw,
+                               @Value("${integrations.minio.bucket.processed}") String bucketProcessed) {
+        ConnectionPool connectionPool = new ConnectionPool(properties.getMaxIdleConnections(),
+                properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        this.httpClient = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .connectTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getReadTimeout())
+                .writeTimeout(properties.getWriteTimeout())
+                .retryOnConnectionFailure(true)
+                .build();
+        this.client = buildClient(endpoint, accessKey, secretKey, httpClient);
+        this.multipartClient = new MultipartMinioClient(client);
+        this.probeClient = buildClient(endpoint, accessKey, secretKey, httpClient.newBuilder()
+                .connectTimeout(properties.getProbeTimeout())
+                .readTimeout(properties.getProbeTimeout())
+                .writeTimeout(properties.getProbeTimeout())
+                .retryOnConnectionFailure(false)
+                .build());
+        this.buckets = List.of(bucketRaw, bucketProcessed);
+        Gauge.builder("minio.http.connections", connectionPool, ConnectionPool::connectionCount)
+                .register(meterRegistry);
+        Gauge.builder("minio.http.connections.idle", connectionPool, ConnectionPool::idleConnectionCount)
+                .register(meterRegistry);
+        log.info("Клиент MinIO создан для {}", endpoint);
+    }
+
+    private static MinioClient buildClient(String endpoint, String accessKey, String secretKey, OkHttpClient httpClient) {
+        return MinioClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .httpClient(httpClient)
+                .build();
+    }
+
+    public MinioClient getClient() {
+        if (!bucketsReady) bootstrap();
+        if (!bucketsReady) throw new IllegalStateException("MinIO недоступен: " + lastError);
+        return client;
+    }
+
+    public MultipartMinioClient getMultipartClient() {
+        getClient();
+        return multipartClient;
+    }
+
+    @Scheduled(fixedDelayString = "${integrations.minio.client.check-interval-ms:10000}")
+    public void probe() {
+        if (!bucketsReady) {
+            bootstrap();
+            return;
+        }
+        try {
+            probeClient.bucketExists(BucketExistsArgs.builder().bucket(buckets.get(0)).build());
+            onReachable();
+        } catch (Exception e) {
+            onUnreachable(e);
+        }
+    }
+
+    private synchronized void bootstrap() {
+        if (bucketsReady) return;
+        try {
+            for (String bucket : buckets) {
+                if (!probeClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                    probeClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                    log.info("Создан бакет {}", bucket);
+                }
+            }
+            bucketsReady = true;
+            onReachable();
+        } catch (Exception e) {
+            onUnreachable(e);
+        }
+    }
+
+    private void onReachable() {
+        if (!reachable) log.info("MinIO доступен");
+        reachable = true;
+        lastError = null;
+    }
+
+    private void onUnreachable(Exception e) {
+        if (reachable || lastError == null || !lastError.equals(e.getMessage())) {
+            log.warn("MinIO недоступен: {}", e.getMessage());
+        }
+        reachable = false;
+        lastError = e.getMessage();
+    }
+
+    @Override
+    public Health health() {
+        if (bucketsReady && reachable) return Health.up().withDetail("buckets", buckets).build();
+        return Health.down()
+                .withDetail("bucketsReady", bucketsReady)
+                .withDetail("error", String.valueOf(lastError))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+}
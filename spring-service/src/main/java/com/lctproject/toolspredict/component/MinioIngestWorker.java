@@ -0,0 +1,116 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.IngestStatus;
+import com.lctproject.toolspredict.event.MinioIngestEnqueuedEvent;
+import com.lctproject.toolspredict.model.MinioIngestEvent;
+import com.lctproject.toolspredict.repository.MinioIngestEventRepository;
+import com.lctproject.toolspredict.service.MinioIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MinioIngestWorker {
+    private final MinioIngestEventRepository minioIngestEventRepository;
+    private final MinioIngestService minioIngestService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    @Value("${integrations.minio.ingest.batch-size:50}")
+    private int batchSize;
+    @Value("${integrations.minio.ingest.max-attempts:3}")
+    private int maxAttempts;
+    @Value("${integrations.minio.ingest.claim-timeout:10m}")
+    private Duration claimTimeout;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEnqueued(MinioIngestEnqueuedEvent event) {
+        log.debug("В очередь загрузки MinIO добавлено событий: {}", event.getEventCount());
+        pending.set(true);
+        drain();
+    }
+
+    @Scheduled(fixedDelayString = "${integrations.minio.ingest.drain-delay-ms:10000}")
+    public void drain() {
+        if (!drainLock.tryLock()) return;
+        try {
+            List<MinioIngestEvent> batch;
+            do {
+                pending.set(false);
+                batch = transactionTemplate.execute(status -> claimBatch());
+                if (batch != null) {
+                    CompletableFuture.allOf(batch.stream()
+                            .map(event -> taskExecutor.submitCompletable(() -> process(event)))
+                            .toArray(CompletableFuture[]::new)).join();
+                }
+            } while (batch != null && (batch.size() >= batchSize || pending.get()));
+        } catch (Exception e) {
+            log.error("Ошибка обработки событий MinIO: {}", e.getMessage(), e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private List<MinioIngestEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<MinioIngestEvent> events = minioIngestEventRepository.lockReadyBatch(now.minus(claimTimeout), batchSize);
+        if (events.isEmpty()) return events;
+        Map<String, MinioIngestEvent> latest = new LinkedHashMap<>();
+        List<MinioIngestEvent> superseded = new ArrayList<>();
+        for (MinioIngestEvent event : events) {
+            MinioIngestEvent previous = latest.put(event.getObjectKey(), event);
+            if (previous != null) {
+                superseded.add(previous.setStatus(IngestStatus.DONE.toString())
+                        .setLastError("Заменено более поздним событием")
+                        .setProcessedAt(now));
+            }
+        }
+        latest.values().forEach(event -> event.setStatus(IngestStatus.PROCESSING.toString()).setClaimedAt(now));
+        minioIngestEventRepository.saveAll(events);
+        log.info("Событий MinIO к обработке: {}, дубликатов в пачке: {}", latest.size(), superseded.size());
+        return new ArrayList<>(latest.values());
+    }
+
+    private void process(MinioIngestEvent event) {
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (minioIngestEventRepository.renewClaim(event.getId(), event.getClaimedAt(), claimedAt) == 0) {
+            log.info("Событие MinIO для {} уже перехвачено другим обработчиком", event.getObjectKey());
+            return;
+        }
+        event.setClaimedAt(claimedAt);
+        try {
+            minioIngestService.ingest(event);
+            event.setStatus(IngestStatus.DONE.toString()).setLastError(null);
+        } catch (Exception e) {
+            int attempts = event.getAttempts() + 1;
+            String error = String.valueOf(e.getMessage());
+            event.setAttempts(attempts)
+                    .setStatus((attempts >= maxAttempts ? IngestStatus.FAILED : IngestStatus.RETRY).toString())
+                    .setLastError(error.length() > 1024 ? error.substring(0, 1024) : error);
+            log.warn("Событие MinIO для {} не обработано (попытка {}): {}", event.getObjectKey(), attempts, error);
+        }
+        minioIngestEventRepository.save(event.setProcessedAt(LocalDateTime.now()));
+    }
+}
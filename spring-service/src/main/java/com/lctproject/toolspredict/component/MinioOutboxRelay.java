@@ -0,0 +1,159 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.event.MinioOutboxEnqueuedEvent;
+import com.lctproject.toolspredict.model.MinioOutboxTask;
+import com.lctproject.toolspredict.repository.MinioFileRepository;
+import com.lctproject.toolspredict.repository.MinioOutboxRepository;
+import com.lctproject.toolspredict.service.MinioService;
+import io.minio.messages.Item;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MinioOutboxRelay {
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final MinioOutboxRepository minioOutboxRepository;
+    private final MinioFileRepository minioFileRepository;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock relayLock = new ReentrantLock();
+    @Value("${integrations.minio.outbox.batch-size:500}")
+    private int batchSize;
+    @Value("${integrations.minio.outbox.claim-timeout:10m}")
+    private Duration claimTimeout;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEnqueued(MinioOutboxEnqueuedEvent event) {
+        log.debug("В outbox MinIO добавлено задач: {}", event.getTaskCount());
+        relay();
+    }
+
+    @Scheduled(fixedDelayString = "${integrations.minio.outbox.relay-delay-ms:30000}")
+    public void relay() {
+        if (!relayLock.tryLock()) return;
+        try {
+            int claimed;
+            do {
+                List<MinioOutboxTask> tasks = transactionTemplate.execute(status -> claimBatch());
+                if (tasks == null || tasks.isEmpty()) return;
+                List<MinioOutboxTask> done = relayBatch(tasks);
+                transactionTemplate.executeWithoutResult(status -> complete(tasks, done));
+                claimed = tasks.size();
+            } while (claimed >= batchSize);
+        } catch (Exception e) {
+            log.error("Ошибка обработки outbox MinIO: {}", e.getMessage(), e);
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private List<MinioOutboxTask> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MinioOutboxTask> tasks = minioOutboxRepository.lockReadyBatch(now, batchSize);
+        tasks.forEach(task -> task.setNextAttemptAt(now.plus(claimTimeout)));
+        return tasks;
+    }
+
+    private List<MinioOutboxTask> relayBatch(List<MinioOutboxTask> tasks) {
+        List<MinioOutboxTask> done = new ArrayList<>();
+
+        Map<String, List<MinioOutboxTask>> objectTasks = tasks.stream()
+                .filter(task -> OutboxOperation.DELETE_OBJECT.toString().equals(task.getOperation()))
+                .collect(Collectors.groupingBy(MinioOutboxTask::getBucketName));
+        objectTasks.forEach((bucket, group) -> {
+            try {
+                Set<String> keys = new HashSet<>(group.stream().map(MinioOutboxTask::getObjectKey).toList());
+                deleteUnreferenced(bucket, keys, minioFileRepository.findExistingPaths(bucket, keys));
+                done.addAll(group);
+            } catch (Exception e) {
+                group.forEach(task -> markFailed(task, e));
+            }
+        });
+
+        tasks.stream()
+                .filter(task -> OutboxOperation.DELETE_PREFIX.toString().equals(task.getOperation()))
+                .forEach(task -> {
+                    try {
+                        Set<String> keys = minioService.listObjects(task.getBucketName(), task.getObjectKey()).stream()
+                                .map(Item::objectName)
+                                .collect(Collectors.toSet());
+                        if (!keys.isEmpty()) {
+                            deleteUnreferenced(task.getBucketName(), keys,
+                                    minioFileRepository.findPathsByPrefix(task.getBucketName(), task.getObjectKey()));
+                        }
+                        done.add(task);
+                    } catch (Exception e) {
+                        markFailed(task, e);
+                    }
+                });
+
+        Map<String, List<MinioOutboxTask>> putTasks = tasks.stream()
+                .filter(task -> OutboxOperation.CONFIRM_PUT.toString().equals(task.getOperation()))
+                .collect(Collectors.groupingBy(MinioOutboxTask::getBucketName));
+        putTasks.forEach((bucket, group) -> {
+            try {
+                Set<String> keys = new HashSet<>(group.stream().map(MinioOutboxTask::getObjectKey).toList());
+                keys.removeAll(minioFileRepository.findExistingPaths(bucket, keys));
+                if (!keys.isEmpty()) {
+                    log.warn("Удаление {} объектов {} без записи в БД после незавершённой загрузки", keys.size(), bucket);
+                    minioService.deleteFiles(bucket, keys);
+                }
+                done.addAll(group);
+            } catch (Exception e) {
+                group.forEach(task -> markFailed(task, e));
+            }
+        });
+        return done;
+    }
+
+    private void deleteUnreferenced(String bucket, Set<String> keys, Collection<String> livePaths) {
+        int requested = keys.size();
+        keys.removeAll(livePaths);
+        if (keys.size() < requested) {
+            log.info("Пропущено {} объектов {}: на них снова ссылаются записи minio_file", requested - keys.size(), bucket);
+        }
+        if (!keys.isEmpty()) minioService.deleteFiles(bucket, keys);
+    }
+
+    private void complete(List<MinioOutboxTask> tasks, List<MinioOutboxTask> done) {
+        minioOutboxRepository.deleteAllInBatch(done);
+        List<MinioOutboxTask> failed = tasks.stream().filter(task -> !done.contains(task)).toList();
+        minioOutboxRepository.saveAll(failed);
+        log.info("Outbox MinIO: выполнено {}, отложено {}", done.size(), failed.size());
+    }
+
+    private void markFailed(MinioOutboxTask task, Exception e) {
+        int attempts = task.getAttempts() + 1;
+        Duration backoff = Duration.ofSeconds(5L << Math.min(attempts, 10));
+        if (backoff.compareTo(MAX_BACKOFF) > 0) backoff = MAX_BACKOFF;
+        String error = String.valueOf(e.getMessage());
+        task.setAttempts(attempts)
+                .setLastError(error.length() > 1024 ? error.substring(0, 1024) : error)
+                .setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        log.warn("Задача outbox {} {}:{} не выполнена (попытка {}): {}",
+                task.getOperation(), task.getBucketName(), task.getObjectKey(), attempts, error);
+    }
+}
@@ -0,0 +1,118 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import com.lctproject.toolspredict.repository.ClassificationResultRepository;
+import com.lctproject.toolspredict.repository.MinioFileRepository;
+import com.lctproject.toolspredict.repository.MinioOutboxRepository;
+import com.lctproject.toolspredict.repository.ProcessingJobsRepository;
+import com.lctproject.toolspredict.service.BulkDeletionService;
+import com.lctproject.toolspredict.service.MinioService;
+import io.minio.messages.Item;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MinioReconciler {
+    private final MinioService minioService;
+    private final MinioFileRepository minioFileRepository;
+    private final MinioOutboxRepository minioOutboxRepository;
+    private final ClassificationResultRepository classificationResultRepository;
+    private final ProcessingJobsRepository processingJobsRepository;
+    private final BulkDeletionService bulkDeletionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, String> cursors = new ConcurrentHashMap<>();
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+    @Value("${integrations.minio.bucket.processed}")
+    private String bucketProcessed;
+    @Value("${integrations.minio.reconcile.enabled:true}")
+    private boolean enabled;
+    @Value("${integrations.minio.reconcile.prefixes-per-run:50}")
+    private int prefixesPerRun;
+    @Value("${integrations.minio.reconcile.orphan-grace:1h}")
+    private Duration orphanGrace;
+
+    @Scheduled(fixedDelayString = "${integrations.minio.reconcile.delay-ms:600000}",
+            initialDelayString = "${integrations.minio.reconcile.delay-ms:600000}")
+    public void reconcile() {
+        if (!enabled) return;
+        for (String bucket : List.of(bucketRaw, bucketProcessed)) {
+            try {
+                reconcileBucket(bucket);
+            } catch (Exception e) {
+                log.error("Ошибка сверки бакета {} с БД: {}", bucket, e.getMessage());
+            }
+        }
+    }
+
+    private void reconcileBucket(String bucket) {
+        List<String> prefixes = minioService.listPrefixes(bucket, cursors.get(bucket), prefixesPerRun);
+        if (prefixes.size() < prefixesPerRun) cursors.remove(bucket);
+        else cursors.put(bucket, prefixes.get(prefixes.size() - 1));
+
+        ZonedDateTime settledBefore = ZonedDateTime.now().minus(orphanGrace);
+        List<Long> changedJobs = new ArrayList<>();
+        int orphans = 0;
+        int missing = 0;
+        for (String prefix : prefixes) {
+            Long jobId = parseJobId(prefix);
+            if (jobId == null) continue;
+            if (!processingJobsRepository.existsById(jobId)) {
+                log.warn("Префикс {}/{} не принадлежит ни одному job, ставим на удаление", bucket, prefix);
+                bulkDeletionService.enqueueDeletion(bucket, List.of(prefix), OutboxOperation.DELETE_PREFIX);
+                orphans++;
+                continue;
+            }
+
+            Set<String> known = new HashSet<>(minioFileRepository.findPathsByPrefix(bucket, prefix));
+            if (bucket.equals(bucketProcessed)) known.addAll(classificationResultRepository.findProcessedKeysByJobId(jobId));
+            Set<String> pending = new HashSet<>(minioOutboxRepository
+                    .findKeysByPrefix(OutboxOperation.CONFIRM_PUT.toString(), bucket, prefix));
+            Set<String> stored = new HashSet<>();
+            List<String> orphanKeys = new ArrayList<>();
+            for (Item item : minioService.listObjects(bucket, prefix)) {
+                String key = item.objectName();
+                stored.add(key);
+                if (known.contains(key) || pending.contains(key)) continue;
+                if (item.lastModified() == null || item.lastModified().isAfter(settledBefore)) continue;
+                orphanKeys.add(key);
+            }
+            if (!orphanKeys.isEmpty()) {
+                bulkDeletionService.enqueueDeletion(bucket, orphanKeys, OutboxOperation.DELETE_OBJECT);
+                if (bucket.equals(bucketProcessed)) changedJobs.add(jobId);
+                orphans += orphanKeys.size();
+            }
+            if (!bucket.equals(bucketProcessed)) {
+                for (String key : known) {
+                    if (!stored.contains(key)) {
+                        log.warn("Объект {}/{} отсутствует в MinIO, но записан в БД", bucket, key);
+                        missing++;
+                    }
+                }
+            }
+        }
+        if (!changedJobs.isEmpty()) eventPublisher.publishEvent(new JobResultsChangedEvent(changedJobs));
+        log.info("Сверка {}: проверено префиксов {}, осиротевших объектов {}, отсутствующих объектов {}",
+                bucket, prefixes.size(), orphans, missing);
+    }
+
+    private Long parseJobId(String prefix) {
+        try {
+            return Long.parseLong(prefix.substring(0, prefix.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.service.ModelConfigService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ModelConfigListener {
+    private static final String CHANNEL = "model_config";
+
+    private final ModelConfigService modelConfigService;
+    @Value("${spring.datasource.url}")
+    private String url;
+    @Value("${spring.datasource.username}")
+    private String username;
+    @Value("${spring.datasource.password}")
+    private String password;
+    @Value("${model.config.listen-timeout-ms:10000}")
+    private int listenTimeoutMs;
+    private volatile boolean running;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("model-config-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                modelConfigService.reload();
+                backoffMs = 1000;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        log.info("Получено уведомление об изменении конфигурации модели ({})", notifications[0].getParameter());
+                        modelConfigService.reload();
+                    }
+                }
+            } catch (Exception ex) {
+                if (!running) return;
+                log.error("Ошибка подписки на изменения конфигурации модели: {}", ex.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 60000);
+            }
+        }
+    }
+}
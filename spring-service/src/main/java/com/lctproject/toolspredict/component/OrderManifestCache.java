@@ -0,0 +1,39 @@
+package com.lctproject.toolspredict.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lctproject.toolspredict.dto.OrderManifest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class OrderManifestCache {
+    private final Cache<UUID, OrderManifest> cache;
+
+    public OrderManifestCache(@Value("${comparison.manifest-cache.max-size:5000}") long maxSize,
+                              @Value("${comparison.manifest-cache.ttl:6h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OrderManifest get(UUID orderId, long version, Supplier<OrderManifest> loader) {
+        OrderManifest cached = cache.getIfPresent(orderId);
+        if (cached != null && cached.version() == version) return cached;
+        OrderManifest loaded = loader.get();
+        cache.put(orderId, loaded);
+        log.debug("Манифест заказа {} версии {} загружен в кэш ({} позиций)", orderId, version, loaded.tools().size());
+        return loaded;
+    }
+
+    public void invalidate(UUID orderId) {
+        cache.invalidate(orderId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.lctproject.toolspredict.component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "integrations.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("toolspredict-replica");
+        replica.setJdbcUrl(properties.getUrl());
+        replica.setUsername(properties.getUsername());
+        replica.setPassword(properties.getPassword());
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        replica.setInitializationFailTimeout(-1);
+        return replica;
+    }
+
+    @Bean
+    public ReadReplicaLagMonitor readReplicaLagMonitor(@Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                                       ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReadReplicaLagMonitor(replicaDataSource, properties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+                                 ReadReplicaLagMonitor lagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReadReplicaFallbackDataSource(replicaDataSource, primaryDataSource, lagMonitor));
+        return dataSource;
+    }
+}
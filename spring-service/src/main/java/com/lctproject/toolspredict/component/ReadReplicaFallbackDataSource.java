@@ -0,0 +1,36 @@
+package com.lctproject.toolspredict.component;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+class ReadReplicaFallbackDataSource extends AbstractDataSource {
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReadReplicaLagMonitor lagMonitor;
+
+    ReadReplicaFallbackDataSource(DataSource replica, DataSource primary, ReadReplicaLagMonitor lagMonitor) {
+        this.replica = replica;
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (lagMonitor.isAvailable()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
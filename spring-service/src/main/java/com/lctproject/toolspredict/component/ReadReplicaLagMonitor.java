@@ -0,0 +1,67 @@
+package com.lctproject.toolspredict.component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+@Slf4j
+public class ReadReplicaLagMonitor {
+    private static final String LAG_QUERY = """
+            select case
+                when not pg_is_in_recovery() then 0
+                when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+            end
+            """;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private volatile double lagSeconds = -1;
+    private volatile boolean available = false;
+
+    public ReadReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Отставание реплики в секундах, -1 - реплика недоступна")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${integrations.datasource.replica.lag-check-interval-ms:2000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lagSeconds = resultSet.getDouble(1);
+            boolean withinLag = lagSeconds * 1000 <= maxLag.toMillis();
+            if (withinLag != available) {
+                if (withinLag) log.info("Реплика БД доступна, отставание {} с", lagSeconds);
+                else log.warn("Отставание реплики БД {} с превышает {}, чтение переключено на основную БД", lagSeconds, maxLag);
+            }
+            available = withinLag;
+        } catch (Exception e) {
+            markUnavailable(e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    void markUnavailable(String reason) {
+        lagSeconds = -1;
+        if (available) log.warn("Реплика БД недоступна, чтение переключено на основную БД: {}", reason);
+        available = false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "integrations.datasource.replica")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    private int maximumPoolSize = 16;
+}
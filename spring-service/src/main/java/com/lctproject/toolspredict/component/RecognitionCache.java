@@ -0,0 +1,114 @@
+package com.lctproject.toolspredict.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lctproject.toolspredict.dto.ClassificationResponseDTO;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import com.lctproject.toolspredict.model.RecognitionCacheEntry;
+import com.lctproject.toolspredict.repository.RecognitionCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class RecognitionCache {
+    private final RecognitionCacheRepository recognitionCacheRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedRecognition> cache;
+    private final boolean enabled;
+    private final boolean persist;
+    private final Duration ttl;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+
+    public RecognitionCache(RecognitionCacheRepository recognitionCacheRepository, ObjectMapper objectMapper,
+                            @Value("${integrations.recognition.cache.enabled:true}") boolean enabled,
+                            @Value("${integrations.recognition.cache.persist:false}") boolean persist,
+                            @Value("${integrations.recognition.cache.max-size:10000}") long maxSize,
+                            @Value("${integrations.recognition.cache.ttl:7d}") Duration ttl) {
+        this.recognitionCacheRepository = recognitionCacheRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.persist = persist;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<ClassificationResponseDTO> get(String bucketName, String key, String etag) {
+        if (!enabled || etag == null) return Optional.empty();
+        CachedRecognition cached = cache.getIfPresent(cacheKey(bucketName, key));
+        if (cached == null && persist) {
+            RecognitionCacheEntry entry = recognitionCacheRepository.findByBucketNameAndObjectKey(bucketName, key);
+            if (entry != null && entry.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl))) {
+                cached = new CachedRecognition(entry.getEtag(), entry.getResponse());
+                cache.put(cacheKey(bucketName, key), cached);
+            }
+        }
+        if (cached == null || !cached.etag().equals(etag)) return Optional.empty();
+        try {
+            return Optional.of(objectMapper.readValue(cached.response(), ClassificationResponseDTO.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось прочитать кэш распознавания {}/{}: {}", bucketName, key, e.getMessage());
+            invalidate(bucketName, key);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String bucketName, String key, String etag, ClassificationResponseDTO response) {
+        if (!enabled || etag == null) return;
+        try {
+            String json = objectMapper.writeValueAsString(response);
+            cache.put(cacheKey(bucketName, key), new CachedRecognition(etag, json));
+            if (persist) recognitionCacheRepository.upsert(bucketName, key, etag, json, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Не удалось сохранить кэш распознавания {}/{}: {}", bucketName, key, e.getMessage());
+        }
+    }
+
+    public void invalidate(String bucketName, String key) {
+        cache.invalidate(cacheKey(bucketName, key));
+        if (persist) recognitionCacheRepository.deleteByBucketNameAndObjectKey(bucketName, key);
+    }
+
+    public void invalidatePrefix(String bucketName, String prefix) {
+        String cachePrefix = cacheKey(bucketName, prefix);
+        cache.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(cachePrefix));
+        if (persist) recognitionCacheRepository.deleteByKeyPrefix(bucketName, prefix);
+    }
+
+    @EventListener
+    public void onJobResultsChanged(JobResultsChangedEvent event) {
+        if (!enabled) return;
+        if (!event.getRawFileKeys().isEmpty()) {
+            for (String rawFileKey : event.getRawFileKeys()) {
+                invalidate(bucketRaw, rawFileKey);
+                int extension = rawFileKey.lastIndexOf('.');
+                if (extension > rawFileKey.lastIndexOf('/')) invalidatePrefix(bucketRaw, rawFileKey.substring(0, extension) + "/");
+            }
+            return;
+        }
+        event.getJobIds().forEach(jobId -> invalidatePrefix(bucketRaw, jobId + "/"));
+    }
+
+    private String cacheKey(String bucketName, String key) {
+        return bucketName + "/" + key;
+    }
+
+    private record CachedRecognition(String etag, String response) {
+    }
+}
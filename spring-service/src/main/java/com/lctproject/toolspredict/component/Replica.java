@@ -0,0 +1,23 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+class Replica {
+    private final String url;
+    private final Semaphore permits;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean healthy = true;
+
+    Replica(String url, int maxConcurrent) {
+        this.url = url;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+}
@@ -0,0 +1,128 @@
+package com.lctproject.toolspredict.component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplicaBalancer {
+    private final ResilienceProperties resilienceProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<Replica>> pools = new ConcurrentHashMap<>();
+    private RestTemplate healthClient;
+
+    @PostConstruct
+    public void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(resilienceProperties.getHealthCheckTimeout());
+        requestFactory.setReadTimeout(resilienceProperties.getHealthCheckTimeout());
+        healthClient = new RestTemplate(requestFactory);
+    }
+
+    Replica acquire(String downstream, List<String> baseUrls, Collection<String> exclude) {
+        List<Replica> replicas = pool(downstream, baseUrls);
+        List<Replica> candidates = replicas.stream().filter(r -> r.isHealthy() && !exclude.contains(r.getUrl())).toList();
+        if (candidates.isEmpty()) candidates = replicas.stream().filter(r -> !exclude.contains(r.getUrl())).toList();
+        if (candidates.isEmpty()) candidates = replicas;
+
+        Replica chosen = choose(candidates);
+        if (chosen.getPermits().tryAcquire()) return lease(chosen);
+        for (Replica replica : candidates.stream().sorted(Comparator.comparingInt(r -> r.getOutstanding().get())).toList()) {
+            if (replica.getPermits().tryAcquire()) return lease(replica);
+        }
+        try {
+            long timeout = resilienceProperties.policyFor(downstream).getAcquireTimeout().toMillis();
+            if (chosen.getPermits().tryAcquire(timeout, TimeUnit.MILLISECONDS)) return lease(chosen);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RuntimeException("Все экземпляры " + downstream + " заняты: превышен лимит одновременных запросов");
+    }
+
+    Replica tryAcquire(String downstream, List<String> baseUrls, Collection<String> exclude) {
+        return pool(downstream, baseUrls).stream()
+                .filter(r -> r.isHealthy() && !exclude.contains(r.getUrl()))
+                .sorted(Comparator.comparingInt(r -> r.getOutstanding().get()))
+                .filter(r -> r.getPermits().tryAcquire())
+                .findFirst()
+                .map(this::lease)
+                .orElse(null);
+    }
+
+    void release(Replica replica) {
+        replica.getOutstanding().decrementAndGet();
+        replica.getPermits().release();
+    }
+
+    void markDown(Replica replica, String reason) {
+        if (!replica.isHealthy()) return;
+        replica.setHealthy(false);
+        log.warn("Экземпляр {} исключён из балансировки: {}", replica.getUrl(), reason);
+    }
+
+    @Scheduled(fixedDelayString = "${integrations.resilience.health-check-interval-ms:5000}")
+    public void probe() {
+        pools.values().stream().flatMap(List::stream).forEach(replica -> {
+            boolean healthy;
+            try {
+                healthy = healthClient.getForEntity(replica.getUrl() + resilienceProperties.getHealthPath(), String.class)
+                        .getStatusCode().is2xxSuccessful();
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != replica.isHealthy()) {
+                log.info("Экземпляр {} {}", replica.getUrl(), healthy ? "снова доступен" : "не отвечает на проверку состояния");
+                replica.setHealthy(healthy);
+            }
+        });
+    }
+
+    private Replica choose(List<Replica> candidates) {
+        if (candidates.size() == 1) return candidates.get(0);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) second++;
+        Replica a = candidates.get(first);
+        Replica b = candidates.get(second);
+        return a.getOutstanding().get() <= b.getOutstanding().get() ? a : b;
+    }
+
+    private Replica lease(Replica replica) {
+        replica.getOutstanding().incrementAndGet();
+        return replica;
+    }
+
+    private List<Replica> pool(String downstream, List<String> baseUrls) {
+        return pools.computeIfAbsent(downstream, name -> {
+            int maxConcurrent = resilienceProperties.policyFor(name).getMaxConcurrentPerInstance();
+            List<Replica> replicas = baseUrls.stream().map(url -> new Replica(url, maxConcurrent)).toList();
+            replicas.forEach(replica -> {
+                Gauge.builder("downstream.replica.outstanding", replica, r -> r.getOutstanding().get())
+                        .tags("downstream", name, "instance", replica.getUrl())
+                        .register(meterRegistry);
+                Gauge.builder("downstream.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .tags("downstream", name, "instance", replica.getUrl())
+                        .register(meterRegistry);
+            });
+            log.info("Балансировка {}: {} экземпляров, до {} одновременных запросов на экземпляр", name, replicas.size(), maxConcurrent);
+            return replicas;
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.lctproject.toolspredict.component;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "integrations.resilience")
+public class ResilienceProperties {
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(120);
+    private int hedgeThreads = 8;
+    private String healthPath = "/health";
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+    private Map<String, Policy> downstreams = new HashMap<>();
+
+    public Policy policyFor(String downstream) {
+        return downstreams.getOrDefault(downstream, new Policy());
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private int slidingWindow = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private double retryBudgetRatio = 0.2;
+        private int retryBudgetTokens = 10;
+        private boolean hedge = false;
+        private Duration hedgeMinDelay = Duration.ofMillis(300);
+        private int latencyWindow = 200;
+        private int maxConcurrentPerInstance = 4;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+}
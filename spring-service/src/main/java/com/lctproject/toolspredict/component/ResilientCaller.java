@@ -0,0 +1,235 @@
+package com.lctproject.toolspredict.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResilientCaller {
+    private final ResilienceProperties resilienceProperties;
+    private final MeterRegistry meterRegistry;
+    private final ReplicaBalancer replicaBalancer;
+    private final Map<String, Downstream> downstreams = new ConcurrentHashMap<>();
+    private ExecutorService hedgeExecutor;
+
+    @PostConstruct
+    public void init() {
+        hedgeExecutor = Executors.newFixedThreadPool(resilienceProperties.getHedgeThreads());
+        resilienceProperties.getDownstreams().keySet().forEach(this::downstream);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    public <T> T call(String name, List<String> baseUrls, boolean hedgeable, Function<String, T> request) {
+        Downstream downstream = downstream(name);
+        ResilienceProperties.Policy policy = downstream.policy;
+        downstream.retryBudget.onRequest();
+        RuntimeException lastError = null;
+        Set<String> tried = new HashSet<>();
+        for (int attempt = 1; attempt <= policy.getMaxAttempts(); attempt++) {
+            if (attempt > 1) {
+                if (!downstream.retryBudget.tryAcquire()) {
+                    downstream.budgetExhausted.increment();
+                    log.warn("Бюджет повторов для {} исчерпан", name);
+                    break;
+                }
+                downstream.retries.increment();
+                backoff(policy, attempt);
+            }
+            if (!downstream.circuitBreaker.tryAcquire(System.nanoTime())) {
+                downstream.rejected.increment();
+                throw new RuntimeException("Сервис " + name + " временно недоступен: превышен порог ошибок"
+                        + (lastError == null ? "" : " (" + lastError.getMessage() + ")"));
+            }
+            Replica replica = replicaBalancer.acquire(name, baseUrls, tried);
+            tried.add(replica.getUrl());
+            try {
+                if (hedgeable && policy.isHedge() && baseUrls.size() > 1
+                        && downstream.circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+                    return hedged(downstream, baseUrls, replica, request);
+                }
+                return timed(downstream, replica, request);
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) throw e;
+                lastError = e;
+                log.warn("Ошибка вызова {} ({}), попытка {}/{}: {}", name, replica.getUrl(), attempt, policy.getMaxAttempts(), e.getMessage());
+            }
+        }
+        throw lastError;
+    }
+
+    private <T> T timed(Downstream downstream, Replica replica, Function<String, T> request) {
+        long start = System.nanoTime();
+        try {
+            T result = request.apply(replica.getUrl());
+            long elapsed = System.nanoTime() - start;
+            downstream.circuitBreaker.onSuccess();
+            downstream.latencyWindow.record(elapsed);
+            downstream.latency.record(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            if (!isFailure(e)) {
+                downstream.circuitBreaker.onSuccess();
+                throw e;
+            }
+            if (e instanceof ResourceAccessException) replicaBalancer.markDown(replica, e.getMessage());
+            if (downstream.circuitBreaker.onFailure(System.nanoTime())) {
+                downstream.trips.increment();
+                log.error("Circuit breaker для {} разомкнут: {}", downstream.name, e.getMessage());
+            }
+            throw e;
+        } finally {
+            replicaBalancer.release(replica);
+        }
+    }
+
+    private <T> T hedged(Downstream downstream, List<String> baseUrls, Replica primary, Function<String, T> request) {
+        long p95 = downstream.latencyWindow.percentile(0.95);
+        if (p95 < 0) return timed(downstream, primary, request);
+        long delay = Math.max(p95, downstream.policy.getHedgeMinDelay().toNanos());
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(hedgeExecutor);
+        Map<Future<T>, Lease> leases = new HashMap<>();
+        submit(completionService, leases, downstream, primary, request);
+        try {
+            Future<T> done = completionService.poll(delay, TimeUnit.NANOSECONDS);
+            if (done == null) {
+                Replica hedge = replicaBalancer.tryAcquire(downstream.name, baseUrls, Set.of(primary.getUrl()));
+                if (hedge != null) {
+                    downstream.hedges.increment();
+                    submit(completionService, leases, downstream, hedge, request);
+                }
+            }
+            RuntimeException failure = null;
+            for (int received = 0; received < leases.size(); received++) {
+                if (done == null) done = completionService.take();
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Вызов " + downstream.name + " прерван", e);
+        } finally {
+            leases.forEach((future, lease) -> {
+                future.cancel(true);
+                if (lease.claim()) replicaBalancer.release(lease.replica);
+            });
+        }
+    }
+
+    private <T> void submit(CompletionService<T> completionService, Map<Future<T>, Lease> leases,
+                            Downstream downstream, Replica replica, Function<String, T> request) {
+        Lease lease = new Lease(replica);
+        leases.put(completionService.submit(() -> {
+            if (!lease.claim()) throw new CancellationException("Запрос к " + replica.getUrl() + " отменён до запуска");
+            return timed(downstream, replica, request);
+        }), lease);
+    }
+
+    private boolean isFailure(RuntimeException e) {
+        return e instanceof ResourceAccessException || e instanceof HttpServerErrorException;
+    }
+
+    private boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResourceAccessException) return true;
+        if (e instanceof HttpServerErrorException serverError) {
+            HttpStatus status = HttpStatus.resolve(serverError.getStatusCode().value());
+            return status == HttpStatus.BAD_GATEWAY || status == HttpStatus.SERVICE_UNAVAILABLE
+                    || status == HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return false;
+    }
+
+    private void backoff(ResilienceProperties.Policy policy, int attempt) {
+        long cap = Math.min(policy.getMaxBackoff().toMillis(), policy.getInitialBackoff().toMillis() << Math.min(attempt - 2, 16));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание повтора прервано", e);
+        }
+    }
+
+    private Downstream downstream(String name) {
+        return downstreams.computeIfAbsent(name, key -> new Downstream(key, resilienceProperties.policyFor(key), meterRegistry));
+    }
+
+    private static class Lease {
+        private final Replica replica;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Lease(Replica replica) {
+            this.replica = replica;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private static class Downstream {
+        private final String name;
+        private final ResilienceProperties.Policy policy;
+        private final CircuitBreaker circuitBreaker;
+        private final RetryBudget retryBudget;
+        private final LatencyWindow latencyWindow;
+        private final Counter trips;
+        private final Counter rejected;
+        private final Counter retries;
+        private final Counter budgetExhausted;
+        private final Counter hedges;
+        private final Timer latency;
+
+        Downstream(String name, ResilienceProperties.Policy policy, MeterRegistry registry) {
+            if (policy.getMaxAttempts() < 1) {
+                throw new IllegalArgumentException("max-attempts для " + name + " должен быть не меньше 1: " + policy.getMaxAttempts());
+            }
+            this.name = name;
+            this.policy = policy;
+            this.circuitBreaker = new CircuitBreaker(policy.getSlidingWindow(), policy.getMinimumCalls(),
+                    policy.getFailureRateThreshold(), policy.getOpenDuration().toNanos());
+            this.retryBudget = new RetryBudget(policy.getRetryBudgetRatio(), policy.getRetryBudgetTokens());
+            this.latencyWindow = new LatencyWindow(policy.getLatencyWindow());
+            Gauge.builder("downstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                    .description("0 - closed, 1 - half-open, 2 - open")
+                    .tag("downstream", name)
+                    .register(registry);
+            Gauge.builder("downstream.retry.budget", retryBudget, RetryBudget::getTokens)
+                    .tag("downstream", name)
+                    .register(registry);
+            this.trips = registry.counter("downstream.circuit.trips", "downstream", name);
+            this.rejected = registry.counter("downstream.circuit.rejected", "downstream", name);
+            this.retries = registry.counter("downstream.retries", "downstream", name);
+            this.budgetExhausted = registry.counter("downstream.retry.budget.exhausted", "downstream", name);
+            this.hedges = registry.counter("downstream.hedges", "downstream", name);
+            this.latency = Timer.builder("downstream.latency")
+                    .tag("downstream", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+}
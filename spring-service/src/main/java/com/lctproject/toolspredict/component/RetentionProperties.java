@@ -0,0 +1,23 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.ActionType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "retention")
+public class RetentionProperties {
+    private boolean enabled = true;
+    private int batchSize = 200;
+    private Map<ActionType, Duration> compactAfter = new EnumMap<>(ActionType.class);
+    private Duration testDeleteAfter = Duration.ofDays(7);
+    private int partitionMonthsAhead = 2;
+}
@@ -0,0 +1,22 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.service.RetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetentionScheduler {
+    private final RetentionService retentionService;
+    private final RetentionProperties retentionProperties;
+
+    @Scheduled(cron = "${retention.cron}")
+    public void runRetention() {
+        if (!retentionProperties.isEnabled()) return;
+        log.info("Запуск плановой очистки устаревших job");
+        retentionService.runRetention();
+    }
+}
@@ -0,0 +1,27 @@
+package com.lctproject.toolspredict.component;
+
+class RetryBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) return false;
+        tokens--;
+        return true;
+    }
+
+    synchronized double getTokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,248 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.comparison.ItemMatch;
+import com.lctproject.toolspredict.dto.comparison.MatchType;
+import com.lctproject.toolspredict.dto.comparison.MatchingReport;
+import com.lctproject.toolspredict.model.ClassificationResult;
+import com.lctproject.toolspredict.model.Tool;
+import com.lctproject.toolspredict.model.ToolOrderItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+public class ToolMatchingEngine {
+    @Value("${comparison.marking.max-distance:0.34}")
+    private double maxDistance;
+    @Value("${comparison.marking.assignment-limit:300}")
+    private int assignmentLimit;
+
+    public MatchingReport match(List<ClassificationResult> detected, List<ToolOrderItem> ordered) {
+        Map<Long, List<ToolOrderItem>> orderedByTool = ordered.stream()
+                .collect(Collectors.groupingBy(item -> item.getTool().getId(), TreeMap::new, Collectors.toList()));
+        Map<Long, List<ClassificationResult>> detectedByTool = detected.stream()
+                .collect(Collectors.groupingBy(result -> result.getTool().getId(), TreeMap::new, Collectors.toList()));
+        Set<Long> toolIds = new TreeSet<>(orderedByTool.keySet());
+        toolIds.addAll(detectedByTool.keySet());
+
+        MatchingReport report = new MatchingReport();
+        for (Long toolId : toolIds) {
+            matchBucket(orderedByTool.getOrDefault(toolId, List.of()), detectedByTool.getOrDefault(toolId, List.of()), report);
+        }
+        return report;
+    }
+
+    private void matchBucket(List<ToolOrderItem> ordered, List<ClassificationResult> detected, MatchingReport report) {
+        List<ToolOrderItem> remainingOrdered = new ArrayList<>();
+        List<ClassificationResult> remainingDetected = new ArrayList<>();
+
+        Map<String, Deque<ToolOrderItem>> orderedByMarking = new HashMap<>();
+        for (ToolOrderItem item : ordered) {
+            String marking = normalize(item.getMarking());
+            if (marking == null) {
+                remainingOrdered.add(item);
+            } else {
+                orderedByMarking.computeIfAbsent(marking, key -> new ArrayDeque<>()).add(item);
+            }
+        }
+        for (ClassificationResult result : detected) {
+            String marking = normalize(result.getMarking());
+            Deque<ToolOrderItem> candidates = marking == null ? null : orderedByMarking.get(marking);
+            if (candidates != null && !candidates.isEmpty()) {
+                report.getMatched().add(pair(MatchType.EXACT, candidates.poll(), result, 0));
+            } else {
+                remainingDetected.add(result);
+            }
+        }
+        orderedByMarking.values().forEach(remainingOrdered::addAll);
+
+        List<ToolOrderItem> markedOrdered = remainingOrdered.stream().filter(item -> normalize(item.getMarking()) != null).toList();
+        List<ClassificationResult> markedDetected = remainingDetected.stream().filter(result -> normalize(result.getMarking()) != null).toList();
+        if (!markedOrdered.isEmpty() && !markedDetected.isEmpty()) {
+            for (int[] match : assignByMarking(markedOrdered, markedDetected)) {
+                ToolOrderItem item = markedOrdered.get(match[0]);
+                ClassificationResult result = markedDetected.get(match[1]);
+                report.getMatched().add(pair(MatchType.FUZZY, item, result, match[2]));
+                remainingOrdered.remove(item);
+                remainingDetected.remove(result);
+            }
+        }
+
+        Deque<ToolOrderItem> unmarkedOrdered = new ArrayDeque<>();
+        Deque<ToolOrderItem> leftOrdered = new ArrayDeque<>();
+        remainingOrdered.forEach(item -> (normalize(item.getMarking()) == null ? unmarkedOrdered : leftOrdered).add(item));
+        Deque<ClassificationResult> unmarkedDetected = new ArrayDeque<>();
+        Deque<ClassificationResult> leftDetected = new ArrayDeque<>();
+        remainingDetected.forEach(result -> (normalize(result.getMarking()) == null ? unmarkedDetected : leftDetected).add(result));
+
+        while (!unmarkedDetected.isEmpty() && !unmarkedOrdered.isEmpty()) {
+            report.getMatched().add(pair(MatchType.TOOL_ONLY, unmarkedOrdered.poll(), unmarkedDetected.poll(), null));
+        }
+        while (!unmarkedDetected.isEmpty() && !leftOrdered.isEmpty()) {
+            report.getMatched().add(pair(MatchType.TOOL_ONLY, leftOrdered.poll(), unmarkedDetected.poll(), null));
+        }
+        while (!leftDetected.isEmpty() && !unmarkedOrdered.isEmpty()) {
+            report.getMatched().add(pair(MatchType.TOOL_ONLY, unmarkedOrdered.poll(), leftDetected.poll(), null));
+        }
+        while (!leftDetected.isEmpty() && !leftOrdered.isEmpty()) {
+            ToolOrderItem item = leftOrdered.poll();
+            ClassificationResult result = leftDetected.poll();
+            report.getMarkingConflicts().add(pair(MatchType.MARKING_CONFLICT, item, result,
+                    levenshtein(normalize(item.getMarking()), normalize(result.getMarking()))));
+        }
+        unmarkedOrdered.forEach(item -> report.getMissing().add(pair(MatchType.MISSING, item, null, null)));
+        leftOrdered.forEach(item -> report.getMissing().add(pair(MatchType.MISSING, item, null, null)));
+        unmarkedDetected.forEach(result -> report.getExtra().add(pair(MatchType.EXTRA, null, result, null)));
+        leftDetected.forEach(result -> report.getExtra().add(pair(MatchType.EXTRA, null, result, null)));
+    }
+
+    private List<int[]> assignByMarking(List<ToolOrderItem> ordered, List<ClassificationResult> detected) {
+        int[][] distances = new int[ordered.size()][detected.size()];
+        double[][] costs = new double[ordered.size()][detected.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            String expected = normalize(ordered.get(i).getMarking());
+            for (int j = 0; j < detected.size(); j++) {
+                String actual = normalize(detected.get(j).getMarking());
+                distances[i][j] = levenshtein(expected, actual);
+                double relative = (double) distances[i][j] / Math.max(expected.length(), actual.length());
+                costs[i][j] = relative <= maxDistance ? relative : 1.0;
+            }
+        }
+        int[] assignment = Math.max(ordered.size(), detected.size()) <= assignmentLimit
+                ? hungarian(costs)
+                : greedy(costs);
+        List<int[]> matches = new ArrayList<>();
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0 && costs[i][assignment[i]] <= maxDistance) {
+                matches.add(new int[]{i, assignment[i], distances[i][assignment[i]]});
+            }
+        }
+        return matches;
+    }
+
+    private static int[] hungarian(double[][] costs) {
+        int rows = costs.length;
+        int cols = costs[0].length;
+        if (rows > cols) {
+            double[][] transposed = new double[cols][rows];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) transposed[j][i] = costs[i][j];
+            }
+            int[] transposedAssignment = hungarian(transposed);
+            int[] assignment = new int[rows];
+            Arrays.fill(assignment, -1);
+            for (int j = 0; j < cols; j++) {
+                if (transposedAssignment[j] >= 0) assignment[transposedAssignment[j]] = j;
+            }
+            return assignment;
+        }
+        double[] u = new double[rows + 1];
+        double[] v = new double[cols + 1];
+        int[] p = new int[cols + 1];
+        int[] way = new int[cols + 1];
+        for (int i = 1; i <= rows; i++) {
+            p[0] = i;
+            int j0 = 0;
+            double[] minv = new double[cols + 1];
+            boolean[] used = new boolean[cols + 1];
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                int j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+                for (int j = 1; j <= cols; j++) {
+                    if (used[j]) continue;
+                    double current = costs[i0 - 1][j - 1] - u[i0] - v[j];
+                    if (current < minv[j]) {
+                        minv[j] = current;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= cols; j++) {
+            if (p[j] != 0) assignment[p[j] - 1] = j - 1;
+        }
+        return assignment;
+    }
+
+    private static int[] greedy(double[][] costs) {
+        List<int[]> pairs = new ArrayList<>();
+        for (int i = 0; i < costs.length; i++) {
+            for (int j = 0; j < costs[i].length; j++) {
+                if (costs[i][j] < 1.0) pairs.add(new int[]{i, j});
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(pair -> costs[pair[0]][pair[1]]));
+        int[] assignment = new int[costs.length];
+        Arrays.fill(assignment, -1);
+        boolean[] taken = new boolean[costs.length == 0 ? 0 : costs[0].length];
+        for (int[] pair : pairs) {
+            if (assignment[pair[0]] < 0 && !taken[pair[1]]) {
+                assignment[pair[0]] = pair[1];
+                taken[pair[1]] = true;
+            }
+        }
+        return assignment;
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    static String normalize(String marking) {
+        if (marking == null) return null;
+        String normalized = marking.toUpperCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private ItemMatch pair(MatchType type, ToolOrderItem item, ClassificationResult result, Integer distance) {
+        Tool tool = item != null ? item.getTool() : result.getTool();
+        return new ItemMatch()
+                .setType(type)
+                .setToolId(tool.getId())
+                .setToolName(tool.getName())
+                .setOrderItemId(item == null ? null : item.getId())
+                .setExpectedMarking(item == null ? null : item.getMarking())
+                .setClassificationResultId(result == null ? null : result.getId())
+                .setDetectedMarking(result == null ? null : result.getMarking())
+                .setConfidence(result == null ? null : result.getConfidence())
+                .setDistance(distance);
+    }
+}
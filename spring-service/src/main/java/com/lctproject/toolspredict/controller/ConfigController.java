@@ -2,6 +2,9 @@ package com.lctproject.toolspredict.controller;
 
 
 import com.lctproject.toolspredict.component.ConfidenceThresholdConfig;
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.service.ModelConfigService;
+import com.lctproject.toolspredict.service.RetentionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,9 +19,14 @@ import java.math.BigDecimal;
 @Tag(name="Конфигурация", description = "API ToolsPredict")
 public class ConfigController {
     private final ConfidenceThresholdConfig confidenceThresholdConfig;
+    private final RetentionService retentionService;
+    private final ModelConfigService modelConfigService;
 
-    public ConfigController(ConfidenceThresholdConfig confidenceThresholdConfig) {
+    public ConfigController(ConfidenceThresholdConfig confidenceThresholdConfig, RetentionService retentionService,
+                            ModelConfigService modelConfigService) {
         this.confidenceThresholdConfig = confidenceThresholdConfig;
+        this.retentionService = retentionService;
+        this.modelConfigService = modelConfigService;
     }
 
     @GetMapping("/model/threshold")
@@ -37,8 +45,42 @@ public class ConfigController {
         if (bd.scale() > 4) {
             return ResponseEntity.badRequest().body("Значение должно иметь максимум четыре знака после запятой");
         }
+        try {
+            modelConfigService.setConfidenceThreshold(confidenceThresholdConfig);
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
 
         return ResponseEntity.ok("Порог успешно установлен: " + confidenceThresholdConfig);
     }
 
+    @GetMapping("/model")
+    @Operation(summary = "Получить текущую конфигурацию модели: общий порог, пороги по инструментам и политику объединения кадров")
+    public ResponseEntity<?> getModelConfig() {
+        return ResponseEntity.ok(this.confidenceThresholdConfig.getSnapshot());
+    }
+
+    @PutMapping("/model/tools/{toolId}/threshold")
+    @Operation(summary = "Установить порог уверенности для отдельного инструмента. Без значения порог сбрасывается к общему")
+    public ResponseEntity<?> setToolThreshold(@PathVariable Long toolId,
+                                              @RequestParam(required = false) Double threshold) {
+        try {
+            return ResponseEntity.ok(modelConfigService.setToolThreshold(toolId, threshold));
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @PutMapping("/model/merge-policy")
+    @Operation(summary = "Установить политику объединения результатов по кадрам")
+    public ResponseEntity<?> setMergePolicy(@RequestParam MergePolicy mergePolicy) {
+        return ResponseEntity.ok(modelConfigService.setMergePolicy(mergePolicy));
+    }
+
+    @PostMapping("/retention/run")
+    @Operation(summary = "Запустить очистку устаревших job вне расписания. Возвращает отчёт об освобождённых строках и байтах")
+    public ResponseEntity<?> runRetention() {
+        return ResponseEntity.ok(retentionService.runRetention());
+    }
+
 }
@@ -35,6 +35,16 @@ public class FileController {
         }
     }
 
+    @GetMapping("/detections/{resultId}")
+    @Operation(summary = "Получить данные детекции (bbox, класс, уверенность) по ID результата распознавания")
+    public ResponseEntity<?> getDetection(@PathVariable Long resultId) {
+        try {
+            return ResponseEntity.ok(minioFileService.getDetection(resultId));
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
     @DeleteMapping("/{fileId}")
     @Operation(summary = "Удалить файл из MiniO")
     public ResponseEntity<?> deleteFile(@Parameter(description = "id_файла")
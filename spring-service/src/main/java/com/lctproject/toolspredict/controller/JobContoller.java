@@ -8,6 +8,8 @@ import com.lctproject.toolspredict.service.ManageJobsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,6 +20,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
+@Slf4j
 @CrossOrigin
 @RestController
 @RequestMapping("/api/v1/jobs")
@@ -52,6 +55,26 @@ public class JobContoller {
         }
     }
 
+    @PutMapping(value = "/{jobId}/files/stream")
+    @Operation(summary = "Потоковая загрузка файла в job (тело запроса передаётся в MinIO без буферизации на диске)")
+    public ResponseEntity<?> uploadFileStream(@Parameter(description = "id процесса")
+                                              @PathVariable Long jobId,
+                                              @Parameter(description = "Имя файла с расширением (jpg, png, mp4)")
+                                              @RequestParam("fileName") String fileName,
+                                              @Parameter(description = "Стоит ли выполнять поиск маркировок? Внимание: время распознавания сильно увеличится.")
+                                              @RequestParam(value = "searchMarking", defaultValue = "false") boolean searchMarking,
+                                              HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(manageJobsService.processStream(request.getInputStream(), fileName,
+                    request.getContentType(), jobId, searchMarking));
+        } catch (NoSuchElementException ex) {
+            return new ResponseEntity<>("Модели не удалось распознать инструменты на фото.", HttpStatus.UNPROCESSABLE_ENTITY);
+        } catch (Exception e) {
+            log.error("Ошибка потоковой загрузки файла {} в job {}: {}", fileName, jobId, e.getMessage(), e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Создание Job. Необходимо указание orderId и типа взаимодействия")
     public ResponseEntity<?> createJob(@RequestParam(value = "orderId", required = true) UUID orderId,
@@ -111,6 +134,16 @@ public class JobContoller {
         }
     }
 
+    @GetMapping("/{jobId}/results/summary")
+    @Operation(summary = "Вывод сводки по инструментам для job, сжатого политикой хранения")
+    public ResponseEntity<?> getSummary(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(jobService.getJobSummary(jobId));
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
     @GetMapping("/{jobId}/results/compare")
     @Operation(summary = "Сравнение результата классификации с заказанным набором инструментов")
     public ResponseEntity<?> getCompareResults(@PathVariable Long jobId) {
@@ -121,6 +154,16 @@ public class JobContoller {
         }
     }
 
+    @GetMapping("/{jobId}/results/reconcile")
+    @Operation(summary = "Сверка возвращённого набора инструментов с результатом выдачи по тому же заказу")
+    public ResponseEntity<?> getReconcileResults(@PathVariable Long jobId) {
+        try {
+            return comparsionService.reconcileWithIssuance(jobService.getJob(jobId));
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
     @GetMapping("/{jobId}/results")
     @Operation(summary = "Вывод итогового результата распознавания инструментов")
     public ResponseEntity<?> getResults(@PathVariable Long jobId) {
@@ -0,0 +1,39 @@
+package com.lctproject.toolspredict.controller;
+
+import com.lctproject.toolspredict.dto.minio.MinioEventDto;
+import com.lctproject.toolspredict.service.MinioIngestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@Tag(name="События MinIO", description = "API ToolsPredict")
+public class MinioEventController {
+    private final MinioIngestService minioIngestService;
+    private final String authToken;
+
+    public MinioEventController(MinioIngestService minioIngestService,
+                                @Value("${integrations.minio.ingest.auth-token:}") String authToken) {
+        this.minioIngestService = minioIngestService;
+        this.authToken = authToken;
+    }
+
+    @PostMapping("/minio")
+    @Operation(summary = "Приём уведомлений MinIO о новых объектах в bucket-raw (ключ inbox/{jobId}/{fileName})")
+    public ResponseEntity<?> onMinioEvent(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                          @RequestBody MinioEventDto event) {
+        if (!authToken.isEmpty() && !authToken.equals(authorization) && !("Bearer " + authToken).equals(authorization)) {
+            return new ResponseEntity<>("Неверный токен уведомления MinIO", HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            return ResponseEntity.ok(minioIngestService.enqueue(event));
+        } catch (Exception ex) {
+            return ResponseEntity.internalServerError().body(ex.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.lctproject.toolspredict.controller;
 
 import com.lctproject.toolspredict.dto.OrderRequest;
+import com.lctproject.toolspredict.dto.ToolRequest;
 import com.lctproject.toolspredict.service.OrderService;
 import com.lctproject.toolspredict.service.ToolService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 @CrossOrigin
 @RestController
@@ -54,7 +56,11 @@ public class OrderController {
     @PostMapping
     @Operation(summary = "Добавление заказа в хранилище")
     public ResponseEntity<String> add(@RequestBody OrderRequest orderRequest) {
-        orderService.createOrder(orderRequest);
+        try {
+            orderService.createOrder(orderRequest);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
         return ResponseEntity.ok("Заказ успешно добавлен.");
     }
 
@@ -67,6 +73,16 @@ public class OrderController {
     }
 
 
+    @PatchMapping("/{orderId}/tools")
+    @Operation(summary = "Привести состав заказа к переданному списку инструментов. Лишние позиции удаляются, недостающие добавляются")
+    public ResponseEntity<?> replaceTools(@PathVariable UUID orderId, @RequestBody List<ToolRequest> toolsList) {
+        try {
+            return ResponseEntity.ok(orderService.replaceTools(orderId, toolsList));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{orderId}")
     @Operation(summary = "Удалить заказ. В ходе удаления все привязанные job'ы удаляются.")
     public ResponseEntity<String> delete(@PathVariable UUID orderId) {
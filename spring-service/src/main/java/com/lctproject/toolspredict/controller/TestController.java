@@ -2,6 +2,7 @@ package com.lctproject.toolspredict.controller;
 
 import com.lctproject.toolspredict.dto.JobStatus;
 import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.service.BulkDeletionService;
 import com.lctproject.toolspredict.service.JobService;
 import com.lctproject.toolspredict.service.ManageJobsService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+
 
 @CrossOrigin
 @RestController
@@ -20,10 +23,12 @@ import org.springframework.web.multipart.MultipartFile;
 public class TestController {
     private final ManageJobsService manageJobsService;
     private final JobService jobService;
+    private final BulkDeletionService bulkDeletionService;
 
-    public TestController(ManageJobsService manageJobsService, JobService jobService) {
+    public TestController(ManageJobsService manageJobsService, JobService jobService, BulkDeletionService bulkDeletionService) {
         this.manageJobsService = manageJobsService;
         this.jobService = jobService;
+        this.bulkDeletionService = bulkDeletionService;
     }
 
     @PostMapping(value = "/model", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -42,5 +47,14 @@ public class TestController {
         }
     }
 
+    @DeleteMapping("/jobs")
+    @Operation(summary = "Удалить тестовые job'ы старше указанного количества дней вместе с файлами")
+    public ResponseEntity<?> purgeTestJobs(@Parameter(description = "Возраст тестовых job в днях")
+                                           @RequestParam(value = "olderThanDays", defaultValue = "7") int olderThanDays) {
+        if (olderThanDays < 0) {
+            return ResponseEntity.badRequest().body("Возраст не может быть отрицательным");
+        }
+        return ResponseEntity.ok(bulkDeletionService.purgeTestJobs(LocalDateTime.now().minusDays(olderThanDays)));
+    }
 
 }
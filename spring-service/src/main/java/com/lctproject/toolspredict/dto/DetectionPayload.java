@@ -0,0 +1,24 @@
+package com.lctproject.toolspredict.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Data
+@Accessors(chain = true)
+public class DetectionPayload {
+    @JsonProperty("source_image_key")
+    private String sourceImageKey;
+    @JsonProperty("object_key")
+    private String objectKey;
+    @JsonProperty("micro_class")
+    private String microClass;
+    @JsonProperty("confidence")
+    private Double confidence;
+    @JsonProperty("bbox")
+    private double[] bbox;
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+}
@@ -15,4 +15,6 @@ public class EnrichmentRequest {
     private String rawFileKey;
     @JsonProperty("processed_file_key")
     private String processedFileKey;
+    @JsonProperty("bbox")
+    private double[] bbox;
 }
@@ -0,0 +1,9 @@
+package com.lctproject.toolspredict.dto;
+
+public enum IngestStatus {
+    NEW,
+    PROCESSING,
+    RETRY,
+    DONE,
+    FAILED
+}
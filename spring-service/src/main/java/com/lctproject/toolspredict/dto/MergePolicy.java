@@ -0,0 +1,6 @@
+package com.lctproject.toolspredict.dto;
+
+public enum MergePolicy {
+    MAX_OCCURRENCES,
+    MAX_CONFIDENT_OCCURRENCES
+}
@@ -0,0 +1,17 @@
+package com.lctproject.toolspredict.dto;
+
+import java.util.Map;
+
+public record ModelConfigSnapshot(double confidenceThreshold,
+                                  Map<Long, Double> toolThresholds,
+                                  MergePolicy mergePolicy,
+                                  long version) {
+
+    public ModelConfigSnapshot {
+        toolThresholds = Map.copyOf(toolThresholds);
+    }
+
+    public double thresholdFor(Long toolId) {
+        return toolThresholds.getOrDefault(toolId, confidenceThreshold);
+    }
+}
@@ -0,0 +1,12 @@
+package com.lctproject.toolspredict.dto;
+
+import com.lctproject.toolspredict.model.Tool;
+
+import java.util.List;
+import java.util.UUID;
+
+public record OrderManifest(UUID orderId, long version, List<ManifestTool> tools) {
+
+    public record ManifestTool(Tool tool, int count, List<String> markings) {
+    }
+}
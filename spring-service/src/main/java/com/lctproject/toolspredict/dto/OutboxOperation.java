@@ -0,0 +1,7 @@
+package com.lctproject.toolspredict.dto;
+
+public enum OutboxOperation {
+    DELETE_OBJECT,
+    DELETE_PREFIX,
+    CONFIRM_PUT
+}
@@ -0,0 +1,12 @@
+package com.lctproject.toolspredict.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class PurgeReport {
+    private int purgedJobs;
+    private int failedJobs;
+    private long reclaimedRows;
+}
@@ -0,0 +1,19 @@
+package com.lctproject.toolspredict.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Data
+@Accessors(chain = true)
+public class RetentionReport {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int compactedJobs;
+    private int deletedTestJobs;
+    private int droppedTestPartitions;
+    private int failedJobs;
+    private long reclaimedRows;
+    private long reclaimedBytes;
+}
@@ -0,0 +1,7 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+public enum ComparisonDecision {
+    MATCH,
+    UNCERTAIN,
+    MISMATCH
+}
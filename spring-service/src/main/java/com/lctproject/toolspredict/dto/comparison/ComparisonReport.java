@@ -0,0 +1,18 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class ComparisonReport {
+    private ComparisonDecision decision;
+    private String message;
+    private List<ToolDiff> missing = new ArrayList<>();
+    private List<ToolDiff> extra = new ArrayList<>();
+    private List<ToolDiff> uncertain = new ArrayList<>();
+    private MatchingReport matching;
+}
@@ -0,0 +1,11 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+import com.lctproject.toolspredict.model.Tool;
+
+import java.util.List;
+
+public record IssuanceAggregate(Long jobId, String stamp, List<AggregatedTool> tools) {
+
+    public record AggregatedTool(Tool tool, int count, List<String> markings) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class ItemMatch {
+    private MatchType type;
+    private Long toolId;
+    private String toolName;
+    private Long orderItemId;
+    private String expectedMarking;
+    private Long classificationResultId;
+    private String detectedMarking;
+    private Double confidence;
+    private Integer distance;
+}
@@ -0,0 +1,10 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+public enum MatchType {
+    EXACT,
+    FUZZY,
+    TOOL_ONLY,
+    MARKING_CONFLICT,
+    MISSING,
+    EXTRA
+}
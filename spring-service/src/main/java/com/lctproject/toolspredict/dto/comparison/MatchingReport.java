@@ -0,0 +1,16 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class MatchingReport {
+    private List<ItemMatch> matched = new ArrayList<>();
+    private List<ItemMatch> markingConflicts = new ArrayList<>();
+    private List<ItemMatch> missing = new ArrayList<>();
+    private List<ItemMatch> extra = new ArrayList<>();
+}
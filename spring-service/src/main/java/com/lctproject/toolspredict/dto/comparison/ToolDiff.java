@@ -0,0 +1,16 @@
+package com.lctproject.toolspredict.dto.comparison;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class ToolDiff {
+    private Long toolId;
+    private String toolName;
+    private int expected;
+    private int detected;
+    private int uncertain;
+    private int count;
+    private double threshold;
+}
@@ -1,18 +1,24 @@
 package com.lctproject.toolspredict.dto.minio;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class MinioEventDto {
     @JsonProperty("EventName")
     private String eventName;
     @JsonProperty("Key")
     private String key;
+    @JsonProperty("Records")
+    private List<MinioEventRecord> records;
 }
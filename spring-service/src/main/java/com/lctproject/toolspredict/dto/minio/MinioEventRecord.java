@@ -0,0 +1,46 @@
+package com.lctproject.toolspredict.dto.minio;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MinioEventRecord {
+    private String eventName;
+    private S3 s3;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class S3 {
+        private Bucket bucket;
+        private S3Object object;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Bucket {
+        private String name;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class S3Object {
+        private String key;
+        private Long size;
+        @JsonProperty("eTag")
+        private String eTag;
+        private String contentType;
+        private String sequencer;
+    }
+}
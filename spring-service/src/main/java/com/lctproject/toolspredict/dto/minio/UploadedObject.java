@@ -0,0 +1,12 @@
+package com.lctproject.toolspredict.dto.minio;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UploadedObject {
+    private String key;
+    private String sha256;
+    private long size;
+}
@@ -0,0 +1,18 @@
+package com.lctproject.toolspredict.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class JobResultsChangedEvent {
+    private Collection<Long> jobIds;
+    private Collection<String> rawFileKeys;
+
+    public JobResultsChangedEvent(Collection<Long> jobIds) {
+        this(jobIds, List.of());
+    }
+}
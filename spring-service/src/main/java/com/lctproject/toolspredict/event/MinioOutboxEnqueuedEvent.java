@@ -0,0 +1,10 @@
+package com.lctproject.toolspredict.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MinioOutboxEnqueuedEvent {
+    private int taskCount;
+}
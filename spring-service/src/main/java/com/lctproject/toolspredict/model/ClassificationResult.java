@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Accessors(chain = true)
 public class ClassificationResult {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classification_result_id_seq")
+    @SequenceGenerator(name = "classification_result_id_seq", sequenceName = "classification_result_id_seq",
+            schema = "public", allocationSize = 50)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "job_id")
@@ -32,4 +34,12 @@ public class ClassificationResult {
     private LocalDateTime createdAt;
     @Column(name = "marking")
     private String marking;
+    @Column(name = "micro_class")
+    private String microClass;
+    @Column(name = "bbox")
+    private double[] bbox;
+    @Column(name = "processed_key")
+    private String processedKey;
+    @Column(name = "test_run")
+    private boolean testRun;
 }
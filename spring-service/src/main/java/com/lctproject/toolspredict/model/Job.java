@@ -23,5 +23,9 @@ public class Job {
     private LocalDateTime createDate;
     @Column(name = "last_modified")
     private LocalDateTime lastModified;
+    @Column(name = "compacted_at")
+    private LocalDateTime compactedAt;
+    @Column(name = "test_run")
+    private boolean testRun;
 
 }
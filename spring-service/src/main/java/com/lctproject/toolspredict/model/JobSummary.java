@@ -0,0 +1,35 @@
+package com.lctproject.toolspredict.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "job_summary", schema = "public")
+@Accessors(chain = true)
+public class JobSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id")
+    private Job job;
+    @ManyToOne
+    @JoinColumn(name = "tool_id")
+    private Tool tool;
+    @Column(name = "tool_count")
+    private int toolCount;
+    @Column(name = "max_confidence")
+    private Double maxConfidence;
+    @Column(name = "markings")
+    private String[] markings;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
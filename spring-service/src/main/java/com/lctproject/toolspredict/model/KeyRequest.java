@@ -1,5 +1,6 @@
 package com.lctproject.toolspredict.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,4 +10,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class KeyRequest {
     String key;
+    @JsonProperty("persist_detections")
+    Boolean persistDetections;
+
+    public KeyRequest(String key) {
+        this.key = key;
+    }
 }
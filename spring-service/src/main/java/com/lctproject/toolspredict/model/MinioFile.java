@@ -27,4 +27,6 @@ public class MinioFile {
     private String filePath;
     @Column(name = "file_name")
     private String fileName;
+    @Column(name = "content_hash")
+    private String contentHash;
 }
@@ -0,0 +1,41 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "minio_ingest_event", schema = "public")
+@Accessors(chain = true)
+public class MinioIngestEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "bucket_name")
+    private String bucketName;
+    @Column(name = "object_key")
+    private String objectKey;
+    @Column(name = "etag")
+    private String etag;
+    @Column(name = "object_size")
+    private Long objectSize;
+    @Column(name = "event_name")
+    private String eventName;
+    @Column(name = "status")
+    private String status;
+    @Column(name = "attempts")
+    private int attempts;
+    @Column(name = "last_error")
+    private String lastError;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
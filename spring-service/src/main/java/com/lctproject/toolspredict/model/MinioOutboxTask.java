@@ -0,0 +1,33 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "minio_outbox", schema = "public")
+@Accessors(chain = true)
+public class MinioOutboxTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "operation")
+    private String operation;
+    @Column(name = "bucket_name")
+    private String bucketName;
+    @Column(name = "object_key")
+    private String objectKey;
+    @Column(name = "attempts")
+    private int attempts;
+    @Column(name = "last_error")
+    private String lastError;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,28 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "model_config", schema = "public")
+@Accessors(chain = true)
+public class ModelConfig {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+    @Column(name = "confidence_threshold")
+    private Double confidenceThreshold;
+    @Column(name = "merge_policy")
+    private String mergePolicy;
+    @Column(name = "version")
+    private Long version;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
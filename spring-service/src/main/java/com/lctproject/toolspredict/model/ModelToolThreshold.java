@@ -0,0 +1,23 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "model_tool_threshold", schema = "public")
+@Accessors(chain = true)
+public class ModelToolThreshold {
+    @Id
+    @Column(name = "tool_id")
+    private Long toolId;
+    @Column(name = "confidence_threshold")
+    private Double confidenceThreshold;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
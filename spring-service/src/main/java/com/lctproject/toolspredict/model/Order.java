@@ -23,4 +23,6 @@ public class Order {
     private LocalDateTime createdAt;
     @Column(name="last_modified")
     private LocalDateTime lastModified;
+    @Column(name="manifest_version", insertable = false, updatable = false)
+    private long manifestVersion;
 }
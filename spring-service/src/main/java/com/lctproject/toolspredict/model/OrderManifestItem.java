@@ -0,0 +1,44 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "order_manifest", schema = "public")
+@IdClass(OrderManifestItem.Key.class)
+@Accessors(chain = true)
+public class OrderManifestItem {
+    @Id
+    @Column(name = "order_id")
+    private UUID orderId;
+    @Id
+    @Column(name = "tool_id")
+    private Long toolId;
+    @ManyToOne
+    @JoinColumn(name = "tool_id", insertable = false, updatable = false)
+    private Tool tool;
+    @Column(name = "required_count")
+    private int requiredCount;
+    @Column(name = "markings")
+    private String[] markings;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID orderId;
+        private Long toolId;
+    }
+}
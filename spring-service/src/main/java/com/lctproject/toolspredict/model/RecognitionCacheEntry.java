@@ -0,0 +1,29 @@
+package com.lctproject.toolspredict.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "recognition_cache", schema = "public")
+@Accessors(chain = true)
+public class RecognitionCacheEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "bucket_name")
+    private String bucketName;
+    @Column(name = "object_key")
+    private String objectKey;
+    @Column(name = "etag")
+    private String etag;
+    @Column(name = "response")
+    private String response;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -11,7 +11,9 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 public class ToolOrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tool_order_item_id_seq")
+    @SequenceGenerator(name = "tool_order_item_id_seq", sequenceName = "tool_order_item_id_seq",
+            schema = "public", allocationSize = 50)
     private Long id;
     @ManyToOne
     @JoinColumn(name="order_id", referencedColumnName = "id")
@@ -6,11 +6,16 @@ import com.lctproject.toolspredict.model.Job;
 import com.lctproject.toolspredict.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 public interface AccountingRepository extends JpaRepository<Accounting, Long> {
     Accounting findByOrderAndActionType(Order order, String actionType);
@@ -31,7 +36,29 @@ public interface AccountingRepository extends JpaRepository<Accounting, Long> {
     """)
     Page<Accounting> getPage(@Param("query") String query, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"job", "order", "order.employee"})
     List<Accounting> findByOrder(Order order);
 
+    @EntityGraph(attributePaths = {"job", "order", "order.employee"})
     Accounting findByJob(Job job);
+
+    @Query("select a.job.id from Accounting a where a.order.id = :orderId")
+    List<Long> findJobIdsByOrderId(@Param("orderId") UUID orderId);
+
+    @Query("""
+        SELECT a.job.id FROM Accounting a
+        WHERE a.actionType = :actionType
+          AND a.job.createDate < :createdBefore
+          AND a.job.compactedAt IS NULL
+          AND a.job.id > :afterId
+        ORDER BY a.job.id
+    """)
+    List<Long> findJobIdsToCompact(@Param("actionType") String actionType,
+                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @Modifying
+    @Query("delete from Accounting a where a.job.id in :jobIds")
+    int deleteAllByJobIds(@Param("jobIds") Collection<Long> jobIds);
 }
@@ -2,6 +2,8 @@ package com.lctproject.toolspredict.repository;
 
 import com.lctproject.toolspredict.model.ClassificationResult;
 import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,16 +11,37 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ClassificationResultRepository extends JpaRepository<ClassificationResult, Long> {
+    @EntityGraph(attributePaths = {"job", "tool", "file", "originalFile"})
     List<ClassificationResult> findByJob(Job job);
 
+    @EntityGraph(attributePaths = {"job", "tool", "file", "originalFile"})
+    List<ClassificationResult> findAllByOriginalFile(MinioFile originalFile);
+
     @Modifying
     @Transactional
     void deleteByJob(Job job);
 
+    @Modifying
+    @Query("delete from ClassificationResult cr where cr.job.id in :jobIds")
+    int deleteAllByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ClassificationResult cr where cr.originalFile = :originalFile")
+    int deleteAllByOriginalFile(@Param("originalFile") MinioFile originalFile);
+
+    @Query("select cr.processedKey from ClassificationResult cr where cr.originalFile = :originalFile and cr.processedKey is not null")
+    List<String> findProcessedKeysByOriginalFile(@Param("originalFile") MinioFile originalFile);
+
+    @Query("select cr.processedKey from ClassificationResult cr where cr.job.id = :jobId and cr.processedKey is not null")
+    List<String> findProcessedKeysByJobId(@Param("jobId") Long jobId);
+
     @Query(value = """
       SELECT tool_id, MAX(tool_count) AS count_per_tool
       FROM (
@@ -33,7 +56,25 @@ public interface ClassificationResultRepository extends JpaRepository<Classifica
       """, nativeQuery = true)
     List<Object[]> findMaxToolCountPerJob(@Param("jobId") Long jobId);
 
+    @Query(value = """
+      SELECT COUNT(*) || ':' || COALESCE(MAX(cr.id), 0)
+      FROM classification_result cr
+      WHERE cr.job_id = :jobId
+      """, nativeQuery = true)
+    String findResultStamp(@Param("jobId") Long jobId);
+
+
+    @Transactional
+    @Query(nativeQuery = true,
+            value = "select public.ensure_classification_result_partitions(:fromMonth, :toMonth)")
+    int ensurePartitions(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+    @Transactional
+    @Query(nativeQuery = true,
+            value = "select public.drop_classification_result_test_partitions(:before)")
+    int dropTestPartitions(@Param("before") LocalDate before);
 
+    @EntityGraph(attributePaths = {"job", "tool", "file", "originalFile"})
     @Query("""
     select cr
     from ClassificationResult cr
@@ -0,0 +1,18 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.JobSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobSummaryRepository extends JpaRepository<JobSummary, Long> {
+
+    @EntityGraph(attributePaths = {"tool"})
+    @Query("select s from JobSummary s where s.job.id = :jobId order by s.tool.id")
+    List<JobSummary> findAllByJobId(@Param("jobId") Long jobId);
+}
@@ -4,11 +4,14 @@ import com.lctproject.toolspredict.model.MinioFile;
 import com.lctproject.toolspredict.model.Job;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MinioFileRepository extends JpaRepository<MinioFile,Long> {
@@ -19,17 +22,54 @@ public interface MinioFileRepository extends JpaRepository<MinioFile,Long> {
 
     MinioFile findByFilePathAndBucketName(String filePath, String bucketName);
 
+    List<MinioFile> findByBucketNameAndFilePathIn(String bucketName, Collection<String> filePaths);
+
     MinioFile findByFilePath(String s);
 
     List<MinioFile> findByPackageId(Job job);
 
-    int countByPackageIdAndBucketName(Job job, String bucketRaw);
+    @Query("select count(m) from MinioFile m where m.packageId = :job and m.bucketName = :bucketName " +
+            "and m.filePath not like '%/%/%'")
+    int countUploadsByPackageIdAndBucketName(@Param("job") Job job, @Param("bucketName") String bucketName);
 
     List<MinioFile> findByPackageIdAndBucketName(Job job, String bucketRaw);
 
     List<MinioFile> findByFilePathContaining(String substring);
 
-    List<MinioFile> findByFilePathContainingAndBucketName(String substring, String bucketProcessed);
+    List<MinioFile> findByBucketNameAndFilePathStartingWith(String bucketName, String prefix);
+
+    List<MinioFile> findByPackageIdAndBucketNameAndFilePathStartingWith(Job job, String bucketName, String prefix);
+
+    @Modifying
+    @Query("delete from MinioFile m where m.packageId.id in :jobIds")
+    int deleteAllByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    @Modifying
+    @Query("delete from MinioFile m where m.packageId.id = :jobId and m.bucketName = :bucketName")
+    int deleteAllByJobIdAndBucketName(@Param("jobId") Long jobId, @Param("bucketName") String bucketName);
+
+    @Query(nativeQuery = true,
+            value = "select m.file_path from public.minio_file m " +
+                    "where m.bucket_name = :bucketName and m.file_path in (:keys)")
+    List<String> findExistingPaths(@Param("bucketName") String bucketName, @Param("keys") Collection<String> keys);
+
+    @Query(nativeQuery = true,
+            value = "select m.file_path from public.minio_file m " +
+                    "where m.bucket_name = :bucketName and m.file_path like :prefix || '%'")
+    List<String> findPathsByPrefix(@Param("bucketName") String bucketName, @Param("prefix") String prefix);
 
-    List<MinioFile> findByPackageIdAndBucketNameAndFilePathContaining(Job job, String bucketProcessed, String rawFilePath);
+    @Query(value = """
+      SELECT m.*
+      FROM minio_file m
+      WHERE m.content_hash = :contentHash
+        AND m.bucket_name = :bucketName
+        AND m.id <> :excludeId
+        AND EXISTS (SELECT 1 FROM classification_result cr WHERE cr.original_file_id = m.id)
+        AND NOT EXISTS (SELECT 1 FROM classification_result cr WHERE cr.original_file_id = m.id AND cr.bbox IS NULL)
+      ORDER BY m.created_at DESC NULLS LAST
+      LIMIT 1
+      """, nativeQuery = true)
+    Optional<MinioFile> findRecognizedByContentHash(@Param("contentHash") String contentHash,
+                                                    @Param("bucketName") String bucketName,
+                                                    @Param("excludeId") Long excludeId);
 }
@@ -0,0 +1,46 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.MinioIngestEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MinioIngestEventRepository extends JpaRepository<MinioIngestEvent, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        insert into public.minio_ingest_event (bucket_name, object_key, etag, object_size, event_name, status, created_at)
+        values (:bucketName, :objectKey, :etag, :objectSize, :eventName, 'NEW', :createdAt)
+        on conflict (bucket_name, object_key, etag) do nothing
+        """)
+    int insertIfAbsent(@Param("bucketName") String bucketName, @Param("objectKey") String objectKey,
+                       @Param("etag") String etag, @Param("objectSize") Long objectSize, @Param("eventName") String eventName,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Query(nativeQuery = true, value = """
+        select * from public.minio_ingest_event
+        where status = 'NEW' or (status in ('PROCESSING', 'RETRY') and claimed_at < :staleBefore)
+        order by id
+        limit :limit
+        for update skip locked
+        """)
+    List<MinioIngestEvent> lockReadyBatch(@Param("staleBefore") LocalDateTime staleBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        update public.minio_ingest_event
+        set claimed_at = :claimedAt
+        where id = :id and status = 'PROCESSING' and claimed_at = :previousClaim
+        """)
+    int renewClaim(@Param("id") Long id, @Param("previousClaim") LocalDateTime previousClaim,
+                   @Param("claimedAt") LocalDateTime claimedAt);
+}
@@ -0,0 +1,28 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.MinioOutboxTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MinioOutboxRepository extends JpaRepository<MinioOutboxTask, Long> {
+
+    @Query(nativeQuery = true,
+            value = "select * from public.minio_outbox " +
+                    "where next_attempt_at <= :now " +
+                    "order by id " +
+                    "limit :limit " +
+                    "for update skip locked")
+    List<MinioOutboxTask> lockReadyBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(nativeQuery = true,
+            value = "select o.object_key from public.minio_outbox o " +
+                    "where o.operation = :operation and o.bucket_name = :bucketName and o.object_key like :prefix || '%'")
+    List<String> findKeysByPrefix(@Param("operation") String operation, @Param("bucketName") String bucketName,
+                                  @Param("prefix") String prefix);
+}
@@ -0,0 +1,19 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.ModelConfig;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ModelConfigRepository extends JpaRepository<ModelConfig, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ModelConfig c where c.id = :id")
+    Optional<ModelConfig> findForUpdate(@Param("id") Integer id);
+}
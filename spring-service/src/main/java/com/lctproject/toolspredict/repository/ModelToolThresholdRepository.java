@@ -0,0 +1,9 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.ModelToolThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ModelToolThresholdRepository extends JpaRepository<ModelToolThreshold, Long> {
+}
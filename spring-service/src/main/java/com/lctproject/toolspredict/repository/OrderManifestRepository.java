@@ -0,0 +1,35 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.OrderManifestItem;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderManifestRepository extends JpaRepository<OrderManifestItem, OrderManifestItem.Key> {
+
+    @EntityGraph(attributePaths = {"tool"})
+    List<OrderManifestItem> findAllByOrderIdOrderByToolId(UUID orderId);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(nativeQuery = true,
+            value = "with items as (select tool_id, count(*) as required_count, " +
+                    "array_remove(array_agg(marking order by id), null) as markings " +
+                    "from public.tool_order_item where order_id = :order_id and tool_id is not null group by tool_id), " +
+                    "removed as (delete from public.order_manifest m where m.order_id = :order_id " +
+                    "and not exists (select 1 from items i where i.tool_id = m.tool_id)), " +
+                    "upserted as (insert into public.order_manifest (order_id, tool_id, required_count, markings) " +
+                    "select :order_id, tool_id, required_count, markings from items " +
+                    "on conflict (order_id, tool_id) do update " +
+                    "set required_count = excluded.required_count, markings = excluded.markings) " +
+                    "update public.employee_order set manifest_version = manifest_version + 1 where id = :order_id")
+    int refresh(@Param("order_id") UUID orderId);
+}
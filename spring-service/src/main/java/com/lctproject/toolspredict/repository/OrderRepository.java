@@ -2,6 +2,8 @@ package com.lctproject.toolspredict.repository;
 
 import com.lctproject.toolspredict.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -9,4 +11,7 @@ import java.util.UUID;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
+    @Query(nativeQuery = true,
+            value = "select o.manifest_version from public.employee_order o where o.id = :id")
+    long findManifestVersion(@Param("id") UUID orderId);
 }
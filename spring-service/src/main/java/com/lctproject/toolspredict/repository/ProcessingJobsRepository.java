@@ -1,9 +1,16 @@
 package com.lctproject.toolspredict.repository;
 
 import com.lctproject.toolspredict.model.Job;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +19,16 @@ public interface ProcessingJobsRepository extends JpaRepository<Job, Long> {
     Job findById(long id);
 
     Optional<Job> findFirstByStatus(String test);
+
+    @Query("""
+        SELECT j.id FROM Job j
+        WHERE j.testRun = true
+          AND j.createDate < :createdBefore
+        ORDER BY j.id
+    """)
+    List<Long> findTestJobIdsCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Job j where j.id in :jobIds")
+    int deleteAllByIds(@Param("jobIds") Collection<Long> jobIds);
 }
@@ -0,0 +1,36 @@
+package com.lctproject.toolspredict.repository;
+
+import com.lctproject.toolspredict.model.RecognitionCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RecognitionCacheRepository extends JpaRepository<RecognitionCacheEntry, Long> {
+
+    RecognitionCacheEntry findByBucketNameAndObjectKey(String bucketName, String objectKey);
+
+    @Transactional
+    void deleteByBucketNameAndObjectKey(String bucketName, String objectKey);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        insert into public.recognition_cache (bucket_name, object_key, etag, response, created_at)
+        values (:bucketName, :objectKey, :etag, :response, :createdAt)
+        on conflict (bucket_name, object_key)
+        do update set etag = excluded.etag, response = excluded.response, created_at = excluded.created_at
+        """)
+    int upsert(@Param("bucketName") String bucketName, @Param("objectKey") String objectKey, @Param("etag") String etag,
+               @Param("response") String response, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "delete from public.recognition_cache where bucket_name = :bucketName and object_key like :prefix || '%'")
+    int deleteByKeyPrefix(@Param("bucketName") String bucketName, @Param("prefix") String prefix);
+}
@@ -5,6 +5,7 @@ import com.lctproject.toolspredict.model.ToolOrderItem;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,15 +20,21 @@ public interface ToolOrderItemRepository extends JpaRepository<ToolOrderItem, Lo
                     "where t.order_id=:order_id")
     List<ToolOrderItem> findToolOrderItemsByOrderId(@Param("order_id") UUID orderId);
 
+    @Query(nativeQuery = true,
+            value = "select t.id, t.tool_id, t.marking from public.tool_order_item t " +
+                    "where t.order_id = :order_id and t.tool_id = any(:tool_ids) order by t.id")
+    List<Object[]> findItemKeys(@Param("order_id") UUID orderId, @Param("tool_ids") Long[] toolIds);
+
     @Modifying
     @Transactional
     @Query(nativeQuery = true,
-        value = "delete from public.tool_order_item " +
-                "where id in (select t.id from public.tool_order_item t " +
-                "where t.order_id=:order_id and t.tool_id=:reference_id limit 1)")
-    void deleteOneByOrderIdAndReferenceId(@Param("order_id") UUID orderId, @Param("reference_id") Long toolId);
+            value = "delete from public.tool_order_item where id = any(:ids)")
+    int deleteAllByIds(@Param("ids") Long[] ids);
 
-    Page<ToolOrderItem> findAllByOrder(Order order, Pageable pageable);
+    @Query(nativeQuery = true,
+            value = "select t.order_id from public.tool_order_item t where t.id = :id")
+    UUID findOrderIdById(@Param("id") Long id);
 
-    List<ToolOrderItem> findByOrder(Order order);
+    @EntityGraph(attributePaths = {"order", "tool"})
+    Page<ToolOrderItem> findAllByOrder(Order order, Pageable pageable);
 }
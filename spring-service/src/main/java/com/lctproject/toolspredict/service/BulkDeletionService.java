@@ -0,0 +1,26 @@
+package com.lctproject.toolspredict.service;
+
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.dto.PurgeReport;
+import com.lctproject.toolspredict.model.MinioOutboxTask;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface BulkDeletionService {
+    int deleteJobs(Collection<Long> jobIds);
+
+    int deleteJobFiles(Collection<Long> jobIds);
+
+    void enqueueDeletion(String bucketName, Collection<String> keys, OutboxOperation operation);
+
+    MinioOutboxTask enqueuePutConfirmation(String bucketName, String key);
+
+    void confirmPut(MinioOutboxTask task);
+
+    PurgeReport purgeTestJobs(LocalDateTime createdBefore);
+
+    PurgeReport purgeTestJobs(LocalDateTime createdBefore, Consumer<List<Long>> beforeBatch);
+}
@@ -9,6 +9,8 @@ import java.util.List;
 public interface ComparsionService {
     ResponseEntity<?> compareResults(Job job);
 
+    ResponseEntity<?> reconcileWithIssuance(Job returnJob);
+
     List<Long> getMergedToolList(Long jobId);
 
     List<ClassificationResult> getMergedResults(Long jobId);
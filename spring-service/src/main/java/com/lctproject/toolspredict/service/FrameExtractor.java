@@ -0,0 +1,11 @@
+package com.lctproject.toolspredict.service;
+
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+
+import java.util.function.Predicate;
+
+public interface FrameExtractor {
+
+    int extractFrames(String videoKey, Job job, Predicate<MinioFile> onFrame);
+}
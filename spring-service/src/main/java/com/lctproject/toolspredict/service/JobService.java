@@ -25,5 +25,7 @@ public interface JobService {
 
     List<ClassificationResult> getClassificationResults(Long jobId);
 
+    List<JobSummary> getJobSummary(Long jobId);
+
     Job createTestJob();
 }
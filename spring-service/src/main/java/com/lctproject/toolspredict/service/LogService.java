@@ -5,8 +5,12 @@ import com.lctproject.toolspredict.dto.ClassificationResultDTO;
 import com.lctproject.toolspredict.dto.EnrichmentResponse;
 import com.lctproject.toolspredict.model.Job;
 
+import java.util.Map;
+
 public interface LogService {
 
-    void logClassificationResult(Long jobId, ClassificationResultDTO classificationResultDTO, String rawFileKey);
+    void logClassificationResults(Long jobId, Map<String, ClassificationResultDTO> results);
+
+    boolean linkCachedResults(Long jobId, String rawFileKey, boolean searchMarking);
 
 }
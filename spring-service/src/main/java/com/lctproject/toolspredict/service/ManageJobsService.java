@@ -5,15 +5,21 @@ import com.lctproject.toolspredict.model.Job;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface ManageJobsService {
 
     String processFile(MultipartFile file, Long jobId, boolean searchMarking);
 
+    String processStream(InputStream stream, String fileName, String contentType, Long jobId, boolean searchMarking);
+
+    String processRawFile(String rawFileKey, Long jobId, boolean searchMarking);
+
     String addRawFile(MultipartFile file, Long jobId);
 
     ClassificationResponseDTO sendToRecognition(String minioKey, Long jobId);
 
-    String sendToEnrichment(Long jobId, String rawFileKey, String processedFileKey);
+    String sendToEnrichment(Long jobId, String rawFileKey, String processedFileKey, double[] bbox);
 
     void testModels(Job testJob, MultipartFile file, boolean searchMarking);
 }
@@ -1,18 +1,30 @@
 package com.lctproject.toolspredict.service;
 
 import com.lctproject.toolspredict.dto.BucketType;
+import com.lctproject.toolspredict.dto.DetectionPayload;
 import com.lctproject.toolspredict.dto.minio.MinioFileDto;
+import com.lctproject.toolspredict.dto.minio.UploadedObject;
 import com.lctproject.toolspredict.model.Job;
 import com.lctproject.toolspredict.model.MinioFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public interface MinioFileService {
     MinioFile create(String bucket, MultipartFile file, Job job);
 
+    MinioFile create(String bucket, String fileName, InputStream stream, String contentType, Job job);
+
+    MinioFile create(String bucket, UploadedObject uploaded, Job job);
+
+    MinioFile upload(String bucket, String key, Job job, Supplier<UploadedObject> upload);
+
+    MinioFile register(String bucket, String sourceKey, String etag, Long size, Job job);
+
     MinioFile get(String key, String bucketName);
 
     void deleteAllFromJob(Job job);
@@ -30,4 +42,6 @@ public interface MinioFileService {
     List<String> createFromArchive(MultipartFile file, Job job);
 
     String getUrl(Long fileId);
+
+    DetectionPayload getDetection(Long classificationResultId) throws NoSuchFileException;
 }
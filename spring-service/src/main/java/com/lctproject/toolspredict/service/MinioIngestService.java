@@ -0,0 +1,10 @@
+package com.lctproject.toolspredict.service;
+
+import com.lctproject.toolspredict.dto.minio.MinioEventDto;
+import com.lctproject.toolspredict.model.MinioIngestEvent;
+
+public interface MinioIngestService {
+    int enqueue(MinioEventDto event);
+
+    void ingest(MinioIngestEvent event);
+}
@@ -1,14 +1,27 @@
 package com.lctproject.toolspredict.service;
 
 import com.lctproject.toolspredict.dto.minio.MinioFileDto;
+import com.lctproject.toolspredict.dto.minio.UploadedObject;
 import io.minio.messages.Item;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.zip.ZipInputStream;
 
 public interface MinioService {
-    String uploadFile(MultipartFile file, String bucketName, String packageId);
+    UploadedObject uploadFile(MultipartFile file, String bucketName, String packageId);
+
+    UploadedObject uploadStream(InputStream stream, String bucketName, String key, String contentType);
+
+    UploadedObject uploadBytes(byte[] data, String bucketName, String key, String contentType);
+
+    long getObjectSize(String bucketName, String key);
+
+    String getObjectEtag(String bucketName, String key);
+
+    InputStream getObjectRange(String bucketName, String key, long offset, long length);
 
     void deleteFile(String bucketName, String key);
 
@@ -16,9 +29,17 @@ public interface MinioService {
 
     MinioFileDto getFile(String bucketName, String key);
 
-    void uploadFileFromStream(String fileName, ZipInputStream zis, long size, Long jobId);
+    String uploadFileFromStream(String fileName, ZipInputStream zis, long size, Long jobId);
 
     List<Item> listObjects(String bucketName, String prefix);
 
+    List<String> listPrefixes(String bucketName, String startAfter, int limit);
+
     String generatePresignedUrl(String bucketName, String objectName, int expirySeconds);
+
+    int deleteFiles(String bucketName, Collection<String> keys);
+
+    int deleteByPrefix(String bucketName, String prefix);
+
+    String computeSha256(String bucketName, String key);
 }
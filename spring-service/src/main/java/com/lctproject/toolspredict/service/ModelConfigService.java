@@ -0,0 +1,15 @@
+package com.lctproject.toolspredict.service;
+
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+
+public interface ModelConfigService {
+
+    ModelConfigSnapshot reload();
+
+    ModelConfigSnapshot setConfidenceThreshold(double threshold);
+
+    ModelConfigSnapshot setToolThreshold(Long toolId, Double threshold);
+
+    ModelConfigSnapshot setMergePolicy(MergePolicy mergePolicy);
+}
@@ -1,6 +1,8 @@
 package com.lctproject.toolspredict.service;
 
+import com.lctproject.toolspredict.dto.OrderManifest;
 import com.lctproject.toolspredict.dto.OrderRequest;
+import com.lctproject.toolspredict.dto.ToolRequest;
 import com.lctproject.toolspredict.model.Order;
 import com.lctproject.toolspredict.model.ToolOrderItem;
 import org.springframework.data.domain.Page;
@@ -13,6 +15,8 @@ public interface OrderService {
 
     void changeOrder(OrderRequest orderRequest);
 
+    OrderManifest replaceTools(UUID orderId, List<ToolRequest> toolsList);
+
     Page<Order> getPage(int page, int size);
 
     Order getOrder(UUID orderId);
@@ -0,0 +1,7 @@
+package com.lctproject.toolspredict.service;
+
+import com.lctproject.toolspredict.dto.RetentionReport;
+
+public interface RetentionService {
+    RetentionReport runRetention();
+}
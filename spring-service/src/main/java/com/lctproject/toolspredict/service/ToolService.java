@@ -1,5 +1,6 @@
 package com.lctproject.toolspredict.service;
 
+import com.lctproject.toolspredict.dto.OrderManifest;
 import com.lctproject.toolspredict.dto.ToolRequest;
 import com.lctproject.toolspredict.model.Order;
 import com.lctproject.toolspredict.model.Tool;
@@ -8,12 +9,17 @@ import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
-import java.util.UUID;
 
 public interface ToolService {
     void addToolOrderItem(Long toolId, Order order, String marking);
 
-    void changeToolOrderItems(UUID orderId, List<ToolRequest> smallerToolsList);
+    void addToolOrderItems(Order order, List<ToolRequest> requests);
+
+    void changeToolOrderItems(Order order, List<ToolRequest> smallerToolsList);
+
+    OrderManifest replaceToolOrderItems(Order order, List<ToolRequest> desiredToolsList);
+
+    OrderManifest getManifest(Order order);
 
     Tool getTool(Long id);
 
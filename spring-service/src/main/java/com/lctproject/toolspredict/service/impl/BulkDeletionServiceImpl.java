@@ -0,0 +1,137 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.dto.PurgeReport;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import com.lctproject.toolspredict.event.MinioOutboxEnqueuedEvent;
+import com.lctproject.toolspredict.model.MinioOutboxTask;
+import com.lctproject.toolspredict.repository.*;
+import com.lctproject.toolspredict.service.BulkDeletionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkDeletionServiceImpl implements BulkDeletionService {
+    private final ProcessingJobsRepository processingJobsRepository;
+    private final MinioFileRepository minioFileRepository;
+    private final ClassificationResultRepository classificationResultRepository;
+    private final AccountingRepository accountingRepository;
+    private final MinioOutboxRepository minioOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+    @Value("${integrations.minio.bucket.processed}")
+    private String bucketProcessed;
+    @Value("${integrations.minio.purge-batch-size:500}")
+    private int purgeBatchSize;
+    @Value("${integrations.minio.outbox.put-grace:1h}")
+    private Duration putGrace;
+
+    @Override
+    @Transactional
+    public int deleteJobs(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) return 0;
+        int rows = deleteJobFiles(jobIds);
+        int accounting = accountingRepository.deleteAllByJobIds(jobIds);
+        int jobs = processingJobsRepository.deleteAllByIds(jobIds);
+        log.info("Удалено job: {}, записей учёта: {}", jobs, accounting);
+        return rows + accounting + jobs;
+    }
+
+    @Override
+    @Transactional
+    public int deleteJobFiles(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) return 0;
+        int results = classificationResultRepository.deleteAllByJobIds(jobIds);
+        int files = minioFileRepository.deleteAllByJobIds(jobIds);
+
+        List<String> prefixes = jobIds.stream().map(jobId -> jobId + "/").toList();
+        enqueueDeletion(bucketRaw, prefixes, OutboxOperation.DELETE_PREFIX);
+        enqueueDeletion(bucketProcessed, prefixes, OutboxOperation.DELETE_PREFIX);
+        eventPublisher.publishEvent(new JobResultsChangedEvent(jobIds));
+        log.info("Удалено результатов классификации: {}, файлов: {}", results, files);
+        return results + files;
+    }
+
+    @Override
+    @Transactional
+    public void enqueueDeletion(String bucketName, Collection<String> keys, OutboxOperation operation) {
+        if (keys.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<MinioOutboxTask> tasks = new ArrayList<>();
+        for (String key : keys) {
+            tasks.add(new MinioOutboxTask()
+                    .setOperation(operation.toString())
+                    .setBucketName(bucketName)
+                    .setObjectKey(key)
+                    .setCreatedAt(now)
+                    .setNextAttemptAt(now));
+        }
+        minioOutboxRepository.saveAll(tasks);
+        eventPublisher.publishEvent(new MinioOutboxEnqueuedEvent(tasks.size()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public MinioOutboxTask enqueuePutConfirmation(String bucketName, String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return minioOutboxRepository.save(new MinioOutboxTask()
+                .setOperation(OutboxOperation.CONFIRM_PUT.toString())
+                .setBucketName(bucketName)
+                .setObjectKey(key)
+                .setCreatedAt(now)
+                .setNextAttemptAt(now.plus(putGrace)));
+    }
+
+    @Override
+    @Transactional
+    public void confirmPut(MinioOutboxTask task) {
+        minioOutboxRepository.deleteById(task.getId());
+    }
+
+    @Override
+    public PurgeReport purgeTestJobs(LocalDateTime createdBefore) {
+        return purgeTestJobs(createdBefore, batch -> {});
+    }
+
+    @Override
+    public PurgeReport purgeTestJobs(LocalDateTime createdBefore, Consumer<List<Long>> beforeBatch) {
+        PurgeReport report = new PurgeReport();
+        List<Long> jobIds;
+        do {
+            jobIds = processingJobsRepository.findTestJobIdsCreatedBefore(createdBefore, PageRequest.of(0, purgeBatchSize));
+            if (jobIds.isEmpty()) break;
+            List<Long> batch = jobIds;
+            try {
+                beforeBatch.accept(batch);
+                Integer rows = transactionTemplate.execute(status -> deleteJobs(batch));
+                report.setPurgedJobs(report.getPurgedJobs() + batch.size());
+                report.setReclaimedRows(report.getReclaimedRows() + (rows == null ? 0 : rows));
+            } catch (Exception e) {
+                report.setFailedJobs(report.getFailedJobs() + batch.size());
+                log.error("Ошибка удаления тестовых job {}: {}", batch, e.getMessage());
+                break;
+            }
+        } while (jobIds.size() >= purgeBatchSize);
+        log.info("Очищено тестовых job, созданных до {}: {}, ошибок {}", createdBefore, report.getPurgedJobs(),
+                report.getFailedJobs());
+        return report;
+    }
+}
@@ -1,22 +1,36 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.component.ComparisonDecisionEngine;
 import com.lctproject.toolspredict.component.ConfidenceThresholdConfig;
+import com.lctproject.toolspredict.component.IssuanceAggregateCache;
+import com.lctproject.toolspredict.component.ToolMatchingEngine;
+import com.lctproject.toolspredict.dto.ActionType;
 import com.lctproject.toolspredict.dto.JobStatus;
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+import com.lctproject.toolspredict.dto.OrderManifest;
+import com.lctproject.toolspredict.dto.comparison.ComparisonDecision;
+import com.lctproject.toolspredict.dto.comparison.ComparisonReport;
+import com.lctproject.toolspredict.dto.comparison.IssuanceAggregate;
+import com.lctproject.toolspredict.model.Accounting;
 import com.lctproject.toolspredict.model.ClassificationResult;
 import com.lctproject.toolspredict.model.Job;
 import com.lctproject.toolspredict.model.Order;
+import com.lctproject.toolspredict.model.Tool;
 import com.lctproject.toolspredict.model.ToolOrderItem;
 import com.lctproject.toolspredict.repository.AccountingRepository;
 import com.lctproject.toolspredict.repository.ClassificationResultRepository;
-import com.lctproject.toolspredict.repository.ToolOrderItemRepository;
+import com.lctproject.toolspredict.repository.JobSummaryRepository;
 import com.lctproject.toolspredict.service.ComparsionService;
 import com.lctproject.toolspredict.service.JobService;
 import com.lctproject.toolspredict.service.OrderService;
+import com.lctproject.toolspredict.service.ToolService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,37 +40,100 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ComparsionServiceImpl implements ComparsionService {
     private final ClassificationResultRepository classificationResultRepository;
-    private final ToolOrderItemRepository toolOrderItemRepository;
     private final AccountingRepository accountingRepository;
+    private final JobSummaryRepository jobSummaryRepository;
     private final JobService jobService;
     private final OrderService orderService;
+    private final ToolService toolService;
     private final ConfidenceThresholdConfig confidenceThresholdConfig;
+    private final ComparisonDecisionEngine comparisonDecisionEngine;
+    private final ToolMatchingEngine toolMatchingEngine;
+    private final IssuanceAggregateCache issuanceAggregateCache;
 
     @Override
     public ResponseEntity<?> compareResults(Job job) {
         Order order = accountingRepository.findByJob(job).getOrder();
-        List<ToolOrderItem> orderedItems = toolOrderItemRepository.findByOrder(order);
+        List<ToolOrderItem> orderedItems = new ArrayList<>();
+        for (OrderManifest.ManifestTool tool : toolService.getManifest(order).tools()) {
+            addExpectedItems(orderedItems, order, tool.tool(), tool.count(), tool.markings());
+        }
+        return ResponseEntity.ok(decide(job, getMergedResults(job.getId()), orderedItems));
+    }
 
-        List<ClassificationResult> results = getMergedResults(job.getId());
+    @Override
+    public ResponseEntity<?> reconcileWithIssuance(Job returnJob) {
+        Accounting returnAccounting = accountingRepository.findByJob(returnJob);
+        if (returnAccounting == null || !ActionType.TOOLS_RETURN.toString().equals(returnAccounting.getActionType())) {
+            throw new IllegalArgumentException("Job " + returnJob.getId() + " не является приёмом инструментов");
+        }
+        Order order = returnAccounting.getOrder();
+        Accounting issuance = accountingRepository.findByOrderAndActionType(order, ActionType.TOOLS_ISSUANCE.toString());
+        if (issuance == null) throw new NoSuchElementException("Для заказа " + order.getId() + " не найдена выдача инструментов");
+
+        IssuanceAggregate aggregate = getIssuanceAggregate(issuance.getJob());
+        List<ToolOrderItem> issuedItems = new ArrayList<>();
+        for (IssuanceAggregate.AggregatedTool tool : aggregate.tools()) {
+            addExpectedItems(issuedItems, order, tool.tool(), tool.count(), tool.markings());
+        }
+        ComparisonReport report = decide(returnJob, getMergedResults(returnJob.getId()), issuedItems);
+        if (report.getDecision() == ComparisonDecision.MATCH) {
+            report.setMessage("Возвращённый набор совпадает с выданным (job " + aggregate.jobId() + ").");
+        }
+        return ResponseEntity.ok(report);
+    }
 
-        List<Long> predictedToolList = results.stream()
-                .map(cr -> cr.getTool().getId())
-                .sorted()
-                .toList();
+    private void addExpectedItems(List<ToolOrderItem> items, Order order, Tool tool, int count, List<String> markings) {
+        for (int i = 0; i < count; i++) {
+            items.add(new ToolOrderItem()
+                    .setOrder(order)
+                    .setTool(tool)
+                    .setMarking(i < markings.size() ? markings.get(i) : null));
+        }
+    }
 
-        List<Long> orderedToolList = orderedItems.stream()
-                .map(item -> item.getTool().getId())
-                .sorted()
-                .toList();
+    private ComparisonReport decide(Job job, List<ClassificationResult> results, List<ToolOrderItem> expectedItems) {
+        ComparisonReport report = comparisonDecisionEngine.decide(results, expectedItems, confidenceThresholdConfig.getSnapshot())
+                .setMatching(toolMatchingEngine.match(results, expectedItems));
+        if (report.getDecision() == ComparisonDecision.MATCH && !report.getMatching().getMarkingConflicts().isEmpty()) {
+            report.setDecision(ComparisonDecision.UNCERTAIN)
+                    .setMessage("Маркировки части инструментов не совпадают с заказом. Требуется подтверждение оператора.");
+        }
+
+        if (!job.getStatus().equals("TEST")) {
+            switch (report.getDecision()) {
+                case MISMATCH -> jobService.updateStatus(job.getId(), JobStatus.MANUAL_MAPPING_IS_REQUIRED);
+                case UNCERTAIN -> jobService.updateStatus(job.getId(), JobStatus.VALIDATION);
+                default -> {
+                }
+            }
+        }
+        return report;
+    }
 
-        boolean isEqual = predictedToolList.equals(orderedToolList);
+    private IssuanceAggregate getIssuanceAggregate(Job issuanceJob) {
+        String stamp = issuanceJob.getCompactedAt() != null
+                ? "compacted:" + issuanceJob.getCompactedAt()
+                : "config:" + confidenceThresholdConfig.getSnapshot().version() + ":"
+                + classificationResultRepository.findResultStamp(issuanceJob.getId());
+        return issuanceAggregateCache.get(issuanceJob.getId(), stamp, () -> loadIssuanceAggregate(issuanceJob, stamp));
+    }
 
-        if (isEqual) {
-            return ResponseEntity.ok("Полное совпадение с заказанным набором.");
-        } else {
-            if (!job.getStatus().equals("TEST")) jobService.updateStatus(job.getId(), JobStatus.MANUAL_MAPPING_IS_REQUIRED);
-            return ResponseEntity.ok("Обнаружены расхождения. Требуется ручная разметка.");
+    private IssuanceAggregate loadIssuanceAggregate(Job issuanceJob, String stamp) {
+        if (issuanceJob.getCompactedAt() != null) {
+            return new IssuanceAggregate(issuanceJob.getId(), stamp, jobSummaryRepository.findAllByJobId(issuanceJob.getId()).stream()
+                    .map(summary -> new IssuanceAggregate.AggregatedTool(summary.getTool(), summary.getToolCount(),
+                            summary.getMarkings() == null ? List.of() : List.of(summary.getMarkings())))
+                    .toList());
         }
+        Map<Long, List<ClassificationResult>> mergedByTool = getMergedResults(issuanceJob.getId()).stream()
+                .filter(cr -> cr.getTool() != null)
+                .collect(Collectors.groupingBy(cr -> cr.getTool().getId(), LinkedHashMap::new, Collectors.toList()));
+        return new IssuanceAggregate(issuanceJob.getId(), stamp, mergedByTool.values().stream()
+                .map(items -> new IssuanceAggregate.AggregatedTool(items.get(0).getTool(), items.size(), items.stream()
+                        .map(ClassificationResult::getMarking)
+                        .filter(Objects::nonNull)
+                        .toList()))
+                .toList());
     }
 
     @Override
@@ -87,7 +164,7 @@ public class ComparsionServiceImpl implements ComparsionService {
 
     public List<ClassificationResult> mergeByMaxOccurrences(Map<Long, List<ClassificationResult>> groupedByOriginalFile) {
         Map<Long, List<ClassificationResult>> resultMap = new HashMap<>();
-        double confidenceThreshold = confidenceThresholdConfig.getConfidenceThreshold();
+        ModelConfigSnapshot config = confidenceThresholdConfig.getSnapshot();
         for (List<ClassificationResult> list : groupedByOriginalFile.values()) {
             log.info("Processing list: {}", list);
 
@@ -97,26 +174,10 @@ public class ComparsionServiceImpl implements ComparsionService {
             for (Map.Entry<Long, List<ClassificationResult>> entry : groupedByTool.entrySet()) {
                 long toolId = entry.getKey();
                 List<ClassificationResult> items = entry.getValue();
+                List<ClassificationResult> existingItems = resultMap.get(toolId);
 
-                if (!resultMap.containsKey(toolId)) {
+                if (existingItems == null || isBetter(items, existingItems, config.thresholdFor(toolId), config.mergePolicy())) {
                     resultMap.put(toolId, items);
-                } else {
-                    List<ClassificationResult> existingItems = resultMap.get(toolId);
-
-                    if (items.size() > existingItems.size()) {
-                        resultMap.put(toolId, items);
-                    } else if (items.size() == existingItems.size()) {
-                        long newHighConfidenceCount = items.stream()
-                                .filter(cr -> cr.getConfidence() >= confidenceThreshold)
-                                .count();
-                        long existingHighConfidenceCount = existingItems.stream()
-                                .filter(cr -> cr.getConfidence() >= confidenceThreshold)
-                                .count();
-
-                        if (newHighConfidenceCount > existingHighConfidenceCount) {
-                            resultMap.put(toolId, items);
-                        }
-                    }
                 }
             }
         }
@@ -127,7 +188,24 @@ public class ComparsionServiceImpl implements ComparsionService {
                 .toList();
     }
 
+    private boolean isBetter(List<ClassificationResult> items, List<ClassificationResult> existingItems,
+                             double confidenceThreshold, MergePolicy mergePolicy) {
+        long newHighConfidenceCount = items.stream()
+                .filter(cr -> cr.getConfidence() >= confidenceThreshold)
+                .count();
+        long existingHighConfidenceCount = existingItems.stream()
+                .filter(cr -> cr.getConfidence() >= confidenceThreshold)
+                .count();
+        return switch (mergePolicy) {
+            case MAX_OCCURRENCES -> items.size() > existingItems.size()
+                    || (items.size() == existingItems.size() && newHighConfidenceCount > existingHighConfidenceCount);
+            case MAX_CONFIDENT_OCCURRENCES -> newHighConfidenceCount > existingHighConfidenceCount
+                    || (newHighConfidenceCount == existingHighConfidenceCount && items.size() > existingItems.size());
+        };
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<ClassificationResult> getMergedResults(Long jobId) {
         Map<Long, List<ClassificationResult>> groupedByOriginalFile =
                 getResultsGroupedByOriginalFile(jobService.getJob(jobId));
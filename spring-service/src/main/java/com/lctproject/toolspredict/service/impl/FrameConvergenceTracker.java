@@ -0,0 +1,62 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+import com.lctproject.toolspredict.model.ClassificationResult;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class FrameConvergenceTracker {
+    private final int stableFramesRequired;
+    private final ModelConfigSnapshot config;
+    private final Map<Long, Integer> counts = new HashMap<>();
+    private final Map<Long, Long> highConfidenceCounts = new HashMap<>();
+    private int frames;
+    private int stableFrames;
+
+    FrameConvergenceTracker(int stableFramesRequired, ModelConfigSnapshot config) {
+        this.stableFramesRequired = stableFramesRequired;
+        this.config = config;
+    }
+
+    void accept(List<ClassificationResult> frameResults) {
+        frames++;
+        boolean changed = false;
+        Map<Long, List<ClassificationResult>> groupedByTool = frameResults.stream()
+                .filter(cr -> cr.getTool() != null)
+                .collect(Collectors.groupingBy(cr -> cr.getTool().getId()));
+        for (Map.Entry<Long, List<ClassificationResult>> entry : groupedByTool.entrySet()) {
+            int count = entry.getValue().size();
+            double confidenceThreshold = config.thresholdFor(entry.getKey());
+            long highConfidence = entry.getValue().stream()
+                    .filter(cr -> cr.getConfidence() != null && cr.getConfidence() >= confidenceThreshold)
+                    .count();
+            Integer existing = counts.get(entry.getKey());
+            if (existing == null || count > existing) {
+                counts.put(entry.getKey(), count);
+                highConfidenceCounts.put(entry.getKey(), highConfidence);
+                changed = true;
+            } else if (count == existing && highConfidence > highConfidenceCounts.get(entry.getKey())) {
+                highConfidenceCounts.put(entry.getKey(), highConfidence);
+            }
+        }
+        stableFrames = changed ? 0 : stableFrames + 1;
+    }
+
+    boolean isConverged() {
+        return !counts.isEmpty()
+                && stableFrames >= stableFramesRequired
+                && counts.entrySet().stream()
+                .allMatch(entry -> highConfidenceCounts.get(entry.getKey()) >= entry.getValue());
+    }
+
+    int getFrames() {
+        return frames;
+    }
+
+    Map<Long, Integer> getCounts() {
+        return counts;
+    }
+}
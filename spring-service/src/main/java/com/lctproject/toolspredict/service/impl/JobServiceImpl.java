@@ -5,6 +5,7 @@ import com.lctproject.toolspredict.dto.BucketType;
 import com.lctproject.toolspredict.dto.JobStatus;
 import com.lctproject.toolspredict.model.*;
 import com.lctproject.toolspredict.repository.*;
+import com.lctproject.toolspredict.service.BulkDeletionService;
 import com.lctproject.toolspredict.service.JobService;
 import com.lctproject.toolspredict.service.MinioFileService;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,6 +31,8 @@ public class JobServiceImpl implements JobService {
     private final ClassificationResultRepository classificationResultRepository;
     private final MinioFileService minioFileService;
     private final AccountingRepository accountingRepository;
+    private final BulkDeletionService bulkDeletionService;
+    private final JobSummaryRepository jobSummaryRepository;
 
     @Override
     public Job createJob(UUID orderId, ActionType actionType) {
@@ -76,6 +80,7 @@ public class JobServiceImpl implements JobService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Accounting> getPage(String query, int page, int size) {
         if (query == null) query = "";
         int pageSize = Math.min(Math.max(size, 1), 50);
@@ -85,23 +90,31 @@ public class JobServiceImpl implements JobService {
 
     @Override
     public void deleteJob(Long jobId) {
-        if (getJob(jobId) == null) return;
-        minioFileService.deleteAllFromJob(getJob(jobId));
-        processingJobsRepository.deleteById(jobId);
+        Job job = getJob(jobId);
+        bulkDeletionService.deleteJobs(List.of(job.getId()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MinioFile> getJobFiles(Long jobId, BucketType type) {
         Job job = getJob(jobId);
         return minioFileService.getMinioFiles(job, type);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ClassificationResult> getClassificationResults(Long jobId) {
         Job job = getJob(jobId);
         return classificationResultRepository.findByJob(job);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<JobSummary> getJobSummary(Long jobId) {
+        Job job = getJob(jobId);
+        return jobSummaryRepository.findAllByJobId(job.getId());
+    }
+
     public List<Tool> getToolResults(Long jobId) {
         return null;
     }
@@ -110,6 +123,7 @@ public class JobServiceImpl implements JobService {
     public Job createTestJob() {
         Job job = new Job()
            .setStatus("TEST")
+           .setTestRun(true)
            .setCreateDate(LocalDateTime.now());
         return processingJobsRepository.save(job);
     }
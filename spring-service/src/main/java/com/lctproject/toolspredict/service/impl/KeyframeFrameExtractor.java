@@ -0,0 +1,204 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.component.FrameExtractionProperties;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.service.FrameExtractor;
+import com.lctproject.toolspredict.service.MinioFileService;
+import com.lctproject.toolspredict.service.MinioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jcodec.api.specific.AVCMP4Adaptor;
+import org.jcodec.common.Codec;
+import org.jcodec.common.DemuxerTrackMeta;
+import org.jcodec.common.SeekableDemuxerTrack;
+import org.jcodec.common.model.Packet;
+import org.jcodec.common.model.Picture;
+import org.jcodec.containers.mp4.demuxer.MP4Demuxer;
+import org.jcodec.scale.AWTUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Predicate;
+
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "integrations.video.extractor", havingValue = "keyframe", matchIfMissing = true)
+public class KeyframeFrameExtractor implements FrameExtractor {
+    private static final int HISTOGRAM_BINS = 32;
+    private static final int ANALYSIS_WIDTH = 160;
+
+    private final MinioService minioService;
+    private final MinioFileService minioFileService;
+    private final RemoteFrameExtractor remoteFrameExtractor;
+    private final FrameExtractionProperties properties;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+
+    @Override
+    public int extractFrames(String videoKey, Job job, Predicate<MinioFile> onFrame) {
+        String fileName = videoKey.substring(videoKey.lastIndexOf('/') + 1);
+        String framePrefix = job.getId() + "/" + fileName.substring(0, fileName.lastIndexOf('.')) + "/frame";
+        Emitter emitter = new Emitter(framePrefix, job, onFrame);
+        int decoded = 0;
+        try (MinioSeekableChannel channel = new MinioSeekableChannel(minioService, bucketRaw, videoKey,
+                (int) properties.getReadBlockSize().toBytes())) {
+            SeekableDemuxerTrack track = (SeekableDemuxerTrack) MP4Demuxer.createMP4Demuxer(channel).getVideoTrack();
+            if (track == null) throw new IllegalArgumentException("В файле нет видеодорожки");
+            DemuxerTrackMeta meta = track.getMeta();
+            if (meta.getCodec() != Codec.H264) throw new UnsupportedOperationException("Кодек " + meta.getCodec() + " не поддерживается");
+            AVCMP4Adaptor decoder = new AVCMP4Adaptor(meta);
+            byte[][] buffer = decoder.allocatePicture();
+            int[] keyframes = meta.getSeekFrames() == null || meta.getSeekFrames().length == 0 ? new int[]{0} : meta.getSeekFrames();
+
+            double lastTime = Double.NEGATIVE_INFINITY;
+            Candidate scene = null;
+            Candidate best = null;
+            for (int frameNo : keyframes) {
+                if (emitter.stopped || emitter.count >= properties.getMaxFrames()) break;
+                track.gotoFrame(frameNo);
+                Packet packet = track.nextFrame();
+                if (packet == null) break;
+                if (packet.getPtsD() - lastTime < properties.getMinIntervalSec()) continue;
+                lastTime = packet.getPtsD();
+                Picture picture = decoder.decodeFrame(packet, buffer);
+                if (picture == null) continue;
+                decoded++;
+
+                Candidate candidate = analyse(picture, packet.getPtsD());
+                boolean newScene = scene == null || candidate.distance(scene) >= properties.getSceneThreshold();
+                boolean sharper = scene != null && candidate.sharpness > scene.sharpness;
+                boolean sharpest = best == null || candidate.sharpness > best.sharpness;
+                if (!newScene && !sharper && !sharpest) continue;
+                candidate = candidate.withImage(picture, meta);
+                if (sharpest) best = candidate;
+                if (newScene) {
+                    if (scene != null) emitter.emitIfSharp(scene);
+                    scene = candidate;
+                } else if (sharper) {
+                    scene = candidate;
+                }
+            }
+            if (scene != null && !emitter.stopped && emitter.count < properties.getMaxFrames()) emitter.emitIfSharp(scene);
+            if (emitter.count == 0 && best != null) emitter.emit(best);
+            log.info("Видео {}: ключевых кадров {}, декодировано {}, выбрано {}, прочитано {} из {} байт",
+                    videoKey, keyframes.length, decoded, emitter.count, channel.getBytesFetched(), channel.size());
+            return emitter.count;
+        } catch (Exception ex) {
+            if (emitter.count > 0) {
+                log.error("Ошибка извлечения кадров из {} после {} кадров: {}", videoKey, emitter.count, ex.getMessage());
+                return emitter.count;
+            }
+            log.warn("Не удалось извлечь ключевые кадры из {} ({}), используется сервис предобработки", videoKey, ex.getMessage());
+            return remoteFrameExtractor.extractFrames(videoKey, job, onFrame);
+        }
+    }
+
+    private Candidate analyse(Picture picture, double time) {
+        byte[] luma = picture.getPlaneData(0);
+        int stride = picture.getPlaneWidth(0);
+        int width = picture.getCroppedWidth();
+        int height = picture.getCroppedHeight();
+        int step = Math.max(1, width / ANALYSIS_WIDTH);
+        double[] histogram = new double[HISTOGRAM_BINS];
+        double sum = 0;
+        double sumSquares = 0;
+        int samples = 0;
+        int laplacians = 0;
+        for (int y = 0; y < height; y += step) {
+            for (int x = 0; x < width; x += step) {
+                int value = luma(luma, stride, x, y);
+                histogram[value * HISTOGRAM_BINS / 256]++;
+                samples++;
+                if (x >= step && y >= step && x + step < width && y + step < height) {
+                    double laplacian = 4 * value - luma(luma, stride, x - step, y) - luma(luma, stride, x + step, y)
+                            - luma(luma, stride, x, y - step) - luma(luma, stride, x, y + step);
+                    sum += laplacian;
+                    sumSquares += laplacian * laplacian;
+                    laplacians++;
+                }
+            }
+        }
+        for (int i = 0; i < HISTOGRAM_BINS; i++) histogram[i] /= samples;
+        double mean = laplacians == 0 ? 0 : sum / laplacians;
+        double sharpness = laplacians == 0 ? 0 : sumSquares / laplacians - mean * mean;
+        return new Candidate(time, histogram, sharpness, null);
+    }
+
+    private static int luma(byte[] plane, int stride, int x, int y) {
+        return plane[y * stride + x] + 128;
+    }
+
+    private byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private record Candidate(double time, double[] histogram, double sharpness, BufferedImage image) {
+
+        double distance(Candidate other) {
+            double distance = 0;
+            for (int i = 0; i < histogram.length; i++) distance += Math.abs(histogram[i] - other.histogram[i]);
+            return distance / 2;
+        }
+
+        Candidate withImage(Picture picture, DemuxerTrackMeta meta) {
+            return new Candidate(time, histogram, sharpness, AWTUtil.toBufferedImage(picture, meta.getOrientation()));
+        }
+    }
+
+    private class Emitter {
+        private final String framePrefix;
+        private final Job job;
+        private final Predicate<MinioFile> onFrame;
+        private int count;
+        private boolean stopped;
+
+        Emitter(String framePrefix, Job job, Predicate<MinioFile> onFrame) {
+            this.framePrefix = framePrefix;
+            this.job = job;
+            this.onFrame = onFrame;
+        }
+
+        void emitIfSharp(Candidate candidate) throws IOException {
+            if (candidate.sharpness >= properties.getMinSharpness()) {
+                emit(candidate);
+            } else {
+                log.debug("Кадр {} с пропущен: резкость {}", candidate.time, candidate.sharpness);
+            }
+        }
+
+        void emit(Candidate candidate) throws IOException {
+            String key = framePrefix + count + ".jpg";
+            byte[] jpeg = toJpeg(candidate.image);
+            MinioFile frame = minioFileService.upload(bucketRaw, key, job,
+                    () -> minioService.uploadBytes(jpeg, bucketRaw, key, "image/jpeg"));
+            count++;
+            log.info("Кадр {} ({} с, резкость {}) передан на распознавание", key, String.format("%.2f", candidate.time),
+                    String.format("%.1f", candidate.sharpness));
+            stopped = !onFrame.test(frame);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.lctproject.toolspredict.dto.ClassificationResultDTO;
 import com.lctproject.toolspredict.dto.EnrichmentResponse;
 import com.lctproject.toolspredict.model.ClassificationResult;
 import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.model.Tool;
 import com.lctproject.toolspredict.repository.*;
 import com.lctproject.toolspredict.service.JobService;
 import com.lctproject.toolspredict.service.LogService;
@@ -13,9 +15,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -30,25 +35,85 @@ public class LogServiceImpl implements LogService {
     private String bucketRaw;
     @Value("${integrations.minio.bucket.processed}")
     private String bucketProcessed;
+    @Value("${integrations.recognition.store-detections-in-db}")
+    private boolean storeDetectionsInDb;
+    @Value("${integrations.recognition.reuse-by-content-hash}")
+    private boolean reuseByContentHash;
 
     @Override
-    public void logClassificationResult(Long jobId, ClassificationResultDTO classificationResultDTO, String processedFileKey) {
+    @Transactional
+    public void logClassificationResults(Long jobId, Map<String, ClassificationResultDTO> results) {
+        if (results.isEmpty()) return;
+        Job job = jobService.getJob(jobId);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, MinioFile> rawFiles = new HashMap<>();
+        Map<String, Tool> tools = new HashMap<>();
+        Map<String, MinioFile> processedFiles = storeDetectionsInDb ? Map.of() : minioFileRepository
+                .findByBucketNameAndFilePathIn(bucketProcessed, results.keySet()).stream()
+                .collect(Collectors.toMap(MinioFile::getFilePath, Function.identity()));
+
+        List<ClassificationResult> batch = new ArrayList<>();
+        results.forEach((processedFileKey, classificationResultDTO) -> {
             log.info("{}, {}", classificationResultDTO.getMicroClass(), classificationResultDTO.getRawFileKey());
-            ClassificationResult classificationResult = new ClassificationResult()
-                    .setJob(jobService.getJob(jobId))
-                    .setFile(minioFileRepository.findByFilePathAndBucketName(processedFileKey, bucketProcessed))
-                    .setOriginalFile(minioFileRepository.findByFilePathAndBucketName(classificationResultDTO.getRawFileKey(), bucketRaw))
-                    .setCreatedAt(LocalDateTime.now())
+            String rawFileKey = classificationResultDTO.getRawFileKey();
+            if (!rawFiles.containsKey(rawFileKey)) {
+                rawFiles.put(rawFileKey, minioFileRepository.findByFilePathAndBucketName(rawFileKey, bucketRaw));
+            }
+            String microClass = classificationResultDTO.getMicroClass();
+            if (!tools.containsKey(microClass)) tools.put(microClass, toolRepository.findByTrimmedName(microClass));
+            batch.add(new ClassificationResult()
+                    .setJob(job)
+                    .setTestRun(job.isTestRun())
+                    .setOriginalFile(rawFiles.get(rawFileKey))
+                    .setFile(processedFiles.get(processedFileKey))
+                    .setCreatedAt(now)
                     .setConfidence(classificationResultDTO.getConfidence())
-                    .setTool(toolRepository.findByTrimmedName(classificationResultDTO.getMicroClass()))
-                    .setMarking(classificationResultDTO.getMarking());
-
-            classificationResultRepository.save(classificationResult);
-
+                    .setTool(tools.get(microClass))
+                    .setMarking(classificationResultDTO.getMarking())
+                    .setMicroClass(microClass)
+                    .setBbox(classificationResultDTO.getBbox())
+                    .setProcessedKey(processedFileKey));
+        });
+        classificationResultRepository.saveAll(batch);
     }
 
+    @Override
+    public boolean linkCachedResults(Long jobId, String rawFileKey, boolean searchMarking) {
+        if (!reuseByContentHash) return false;
+        MinioFile rawFile = minioFileRepository.findByFilePathAndBucketName(rawFileKey, bucketRaw);
+        if (rawFile == null || rawFile.getContentHash() == null) return false;
+        List<ClassificationResult> existing = classificationResultRepository.findAllByOriginalFile(rawFile);
+        if (!existing.isEmpty() && hasMarkings(existing, searchMarking)) {
+            log.info("Файл {} не изменился, повторное распознавание не требуется", rawFileKey);
+            return true;
+        }
+        if (!existing.isEmpty()) classificationResultRepository.deleteAllByOriginalFile(rawFile);
+        MinioFile source = minioFileRepository.findRecognizedByContentHash(rawFile.getContentHash(), bucketRaw, rawFile.getId())
+                .orElse(null);
+        if (source == null) return false;
+        List<ClassificationResult> cached = classificationResultRepository.findAllByOriginalFile(source);
+        if (!hasMarkings(cached, searchMarking)) return false;
 
+        Job job = jobService.getJob(jobId);
+        LocalDateTime now = LocalDateTime.now();
+        classificationResultRepository.saveAll(cached.stream()
+                .map(result -> new ClassificationResult()
+                        .setJob(job)
+                        .setTestRun(job.isTestRun())
+                        .setOriginalFile(rawFile)
+                        .setCreatedAt(now)
+                        .setConfidence(result.getConfidence())
+                        .setTool(result.getTool())
+                        .setMarking(result.getMarking())
+                        .setMicroClass(result.getMicroClass())
+                        .setBbox(result.getBbox()))
+                .toList());
+        log.info("Для {} использованы результаты распознавания {} (sha256 {})", rawFileKey, source.getFilePath(), rawFile.getContentHash());
+        return true;
+    }
 
-
+    private boolean hasMarkings(List<ClassificationResult> results, boolean searchMarking) {
+        return !searchMarking || results.stream().map(ClassificationResult::getMarking).allMatch(Objects::nonNull);
+    }
 
 }
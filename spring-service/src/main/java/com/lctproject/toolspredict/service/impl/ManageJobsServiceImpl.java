@@ -1,7 +1,10 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.component.ConfidenceThresholdConfig;
+import com.lctproject.toolspredict.component.FrameExtractionProperties;
 import com.lctproject.toolspredict.dto.*;
 import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.repository.ClassificationResultRepository;
 import com.lctproject.toolspredict.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,10 +14,13 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -26,49 +32,85 @@ public class ManageJobsServiceImpl implements ManageJobsService {
     private final MinioService minioService;
     private final SenderService senderService;
     private final LogService logService;
+    private final FrameExtractor frameExtractor;
+    private final FrameExtractionProperties frameExtractionProperties;
+    private final ConfidenceThresholdConfig confidenceThresholdConfig;
+    private final ClassificationResultRepository classificationResultRepository;
     @Value("${integrations.minio.bucket.raw}")
     private String bucketRaw;
     @Value("${integrations.minio.bucket.processed}")
     private String bucketProcessed;
+    @Value("${integrations.recognition.store-detections-in-db}")
+    private boolean storeDetectionsInDb;
 
     @Override
     public String processFile(MultipartFile file, Long jobId, boolean searchMarking) {
-        String result;
-        String rawFileKey = addRawFile(file, jobId);
+        return processRawFile(addRawFile(file, jobId), jobId, searchMarking);
+    }
+
+    @Override
+    public String processStream(InputStream stream, String fileName, String contentType, Long jobId, boolean searchMarking) {
+        checkExtension(fileName);
+        Job job = jobService.getJob(jobId);
+        String rawFileKey = minioFileService.create(bucketRaw, fileName, stream, contentType, job).getFilePath();
+        return processRawFile(rawFileKey, jobId, searchMarking);
+    }
+
+    @Override
+    public String processRawFile(String rawFileKey, Long jobId, boolean searchMarking) {
         if (rawFileKey.substring(rawFileKey.lastIndexOf('.')+1).equals("mp4")) {
-            int countSaved = 0;
+            AtomicInteger countSaved = new AtomicInteger();
             StringBuilder builder = new StringBuilder();
-            FrameResponse response = getFrames(rawFileKey, jobId);
-            for (Map.Entry<String, String> entry: response.getResults().entrySet()) {
+            FrameConvergenceTracker tracker = new FrameConvergenceTracker(frameExtractionProperties.getStableFrames(),
+                    confidenceThresholdConfig.getSnapshot());
+            frameExtractor.extractFrames(rawFileKey, jobService.getJob(jobId), frame -> {
+                String frameKey = frame.getFilePath();
                 try {
-                    ClassificationResponseDTO classificationResponseDTO = sendToRecognition(entry.getValue(), jobId);
-                    handleClassificationResponse(classificationResponseDTO, jobId, entry.getValue(), searchMarking);
-                    countSaved++;
-                    builder.append(entry.getValue()).append(": ").append("OK").append("\n");
+                    recognize(frameKey, jobId, searchMarking);
+                    countSaved.incrementAndGet();
+                    builder.append(frameKey).append(": ").append("OK").append("\n");
+                    tracker.accept(classificationResultRepository.findAllByOriginalFile(frame));
                 } catch (NoSuchElementException e) {
-                    log.error("Ошибка: модели не удалось распознать инструменты в кадре {}", entry.getValue());
-                    builder.append(entry.getValue()).append(": ").append(e.getMessage()).append("\n");
+                    log.error("Ошибка: модели не удалось распознать инструменты в кадре {}", frameKey);
+                    builder.append(frameKey).append(": ").append(e.getMessage()).append("\n");
+                    tracker.accept(List.of());
                 } catch (Exception ex) {
                     log.error("Ошибка отправки кадра на предобработку: {}", ex.getMessage());
-                    builder.append(entry.getValue()).append(": ").append(ex.getMessage()).append("\n");
+                    builder.append(frameKey).append(": ").append(ex.getMessage()).append("\n");
                 }
-            }
-            if (countSaved == 0) throw new RuntimeException(builder.toString());
+                if (frameExtractionProperties.isEarlyExit() && tracker.isConverged()) {
+                    log.info("Набор инструментов в {} стабилизировался после {} кадров: {}", rawFileKey, tracker.getFrames(), tracker.getCounts());
+                    return false;
+                }
+                if (tracker.getFrames() >= frameExtractionProperties.getFrameBudget()) {
+                    log.info("Исчерпан бюджет кадров ({}) для {}", frameExtractionProperties.getFrameBudget(), rawFileKey);
+                    return false;
+                }
+                return true;
+            });
+            if (countSaved.get() == 0) throw new RuntimeException(builder.toString());
             return builder.toString();
         } else {
-            ClassificationResponseDTO response = sendToRecognition(rawFileKey, jobId);
-            handleClassificationResponse(response, jobId, rawFileKey, searchMarking);
+            recognize(rawFileKey, jobId, searchMarking);
             return "OK";
         }
     }
 
+    private void recognize(String rawFileKey, Long jobId, boolean searchMarking) {
+        if (logService.linkCachedResults(jobId, rawFileKey, searchMarking)) return;
+        ClassificationResponseDTO response = sendToRecognition(rawFileKey, jobId);
+        handleClassificationResponse(response, jobId, rawFileKey, searchMarking);
+    }
+
     private void handleClassificationResponse(ClassificationResponseDTO response, Long jobId, String rawFileKey, Boolean searchMarking) {
+        Map<String, ClassificationResultDTO> results = new LinkedHashMap<>();
         for (Map.Entry<String,ClassificationResultDTO> entry: response.getResults().entrySet()) {
             ClassificationResultDTO classificationResultDTO = entry.getValue().setRawFileKey(rawFileKey);
             String marking = null;
-            if (searchMarking) marking = sendToEnrichment(jobId, rawFileKey, entry.getKey());
-            logService.logClassificationResult(jobId, classificationResultDTO.setMarking(marking), entry.getKey());
+            if (searchMarking) marking = sendToEnrichment(jobId, rawFileKey, entry.getKey(), classificationResultDTO.getBbox());
+            results.put(entry.getKey(), classificationResultDTO.setMarking(marking));
         }
+        logService.logClassificationResults(jobId, results);
     }
 
 
@@ -77,15 +119,18 @@ public class ManageJobsServiceImpl implements ManageJobsService {
         String fileName = file.getOriginalFilename();
         log.info(String.valueOf(jobId));
         log.info(fileName);
+        checkExtension(fileName);
+        Job job = jobService.getJob(jobId);
+        return minioFileService.create(bucketRaw, file, job).getFilePath();
+    }
+
+    private void checkExtension(String fileName) {
         switch (Objects.requireNonNull(fileName).substring(fileName.lastIndexOf('.')+1).toLowerCase()) {
             case "png", "mp4", "jpg" -> {
-                Job job = jobService.getJob(jobId);
-                return minioFileService.create(bucketRaw, file, job).getFilePath();
             }
             default -> throw new IllegalArgumentException("Unsupported file type: " + fileName
                     .substring(fileName.lastIndexOf('.')+1));
         }
-
     }
 
     @Override
@@ -95,8 +140,10 @@ public class ManageJobsServiceImpl implements ManageJobsService {
             ResponseEntity<?> response = senderService.sendToRecognition(minioKey);
             ClassificationResponseDTO classificationResponseDTO = (ClassificationResponseDTO) response.getBody();
             if (classificationResponseDTO == null) throw new NullPointerException("No recognition");
-            for (Map.Entry<String, ClassificationResultDTO> entry : classificationResponseDTO.getResults().entrySet()){
-                minioFileService.create(bucketProcessed, entry.getKey(), job);
+            if (!storeDetectionsInDb) {
+                for (Map.Entry<String, ClassificationResultDTO> entry : classificationResponseDTO.getResults().entrySet()){
+                    minioFileService.create(bucketProcessed, entry.getKey(), job);
+                }
             }
             return classificationResponseDTO;
         } catch (NoSuchElementException e) {
@@ -104,23 +151,13 @@ public class ManageJobsServiceImpl implements ManageJobsService {
         }
     }
 
-    public FrameResponse getFrames(String minioKey, Long jobId) {
-        ResponseEntity<?> response = senderService.sendVideoToCut(minioKey);
-        FrameResponse frameResponse = (FrameResponse) response.getBody();
-        if (frameResponse == null) throw new NullPointerException("FrameResponse is null");
-        Job job = jobService.getJob(jobId);
-        for (Map.Entry<String, String> entry : frameResponse.getResults().entrySet()){
-            minioFileService.create(bucketRaw, entry.getValue(), job);
-        }
-        return frameResponse;
-    }
-
     @Override
-    public String sendToEnrichment(Long jobId, String rawFileKey, String processedFileKey) {
+    public String sendToEnrichment(Long jobId, String rawFileKey, String processedFileKey, double[] bbox) {
         Job job = jobService.getJob(jobId);
         EnrichmentRequest enrichmentRequest = new EnrichmentRequest()
                 .setProcessedFileKey(processedFileKey)
-                .setRawFileKey(rawFileKey);
+                .setRawFileKey(rawFileKey)
+                .setBbox(bbox);
         try {
             EnrichmentResponse response = (EnrichmentResponse) senderService.sendToEnrichment(enrichmentRequest).getBody();
             return response.getMarking();
@@ -137,8 +174,7 @@ public class ManageJobsServiceImpl implements ManageJobsService {
         List<String> savedKeys = minioFileService.createFromArchive(file, job);
         for (String rawFileKey : savedKeys) {
             try {
-                ClassificationResponseDTO response = sendToRecognition(rawFileKey, jobId);
-                handleClassificationResponse(response, jobId, rawFileKey, searchMarking);
+                recognize(rawFileKey, jobId, searchMarking);
             } catch (Exception ex) {
                 log.error("Ошибка обработки файла {}: {}", rawFileKey, ex.getMessage());
             }
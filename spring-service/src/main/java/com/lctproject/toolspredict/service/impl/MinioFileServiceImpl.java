@@ -1,27 +1,40 @@
 package com.lctproject.toolspredict.service.impl;
 
 import com.lctproject.toolspredict.dto.BucketType;
+import com.lctproject.toolspredict.dto.DetectionPayload;
+import com.lctproject.toolspredict.dto.OutboxOperation;
 import com.lctproject.toolspredict.dto.minio.MinioFileDto;
+import com.lctproject.toolspredict.dto.minio.UploadedObject;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import com.lctproject.toolspredict.model.ClassificationResult;
 import com.lctproject.toolspredict.model.Job;
 import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.model.MinioOutboxTask;
+import com.lctproject.toolspredict.repository.ClassificationResultRepository;
 import com.lctproject.toolspredict.repository.MinioFileRepository;
+import com.lctproject.toolspredict.service.BulkDeletionService;
 import com.lctproject.toolspredict.service.MinioFileService;
 import com.lctproject.toolspredict.service.MinioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -32,6 +45,10 @@ import java.util.zip.ZipInputStream;
 public class MinioFileServiceImpl implements MinioFileService {
     private final MinioFileRepository minioFileRepository;
     private final MinioService minioService;
+    private final BulkDeletionService bulkDeletionService;
+    private final ClassificationResultRepository classificationResultRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     @Value("${integrations.minio.bucket.raw}")
     private String bucketRaw;
     @Value("${integrations.minio.bucket.processed}")
@@ -42,11 +59,57 @@ public class MinioFileServiceImpl implements MinioFileService {
 
     @Override
     public MinioFile create(String bucket, MultipartFile file, Job job) {
-        if (minioFileRepository.countByPackageIdAndBucketName(job, bucketRaw) >= FILE_LIMIT) {
+        checkFileLimit(job);
+        return upload(bucket, job.getId() + "/" + file.getOriginalFilename(), job, () -> {
+            UploadedObject uploaded = minioService.uploadFile(file, bucketRaw, String.valueOf(job.getId()));
+            if (uploaded == null) throw new RuntimeException("Не удалось загрузить файл в MinIO");
+            log.info("Create minio file from Multipart {}, sha256 {}", uploaded.getKey(), uploaded.getSha256());
+            return uploaded;
+        });
+    }
+
+    @Override
+    public MinioFile create(String bucket, String fileName, InputStream stream, String contentType, Job job) {
+        checkFileLimit(job);
+        String key = job.getId() + "/" + fileName;
+        return upload(bucket, key, job, () -> {
+            UploadedObject uploaded = minioService.uploadStream(stream, bucketRaw, key, contentType);
+            log.info("Create minio file from stream {}, {} bytes, sha256 {}", uploaded.getKey(), uploaded.getSize(), uploaded.getSha256());
+            return uploaded;
+        });
+    }
+
+    @Override
+    public MinioFile upload(String bucket, String key, Job job, Supplier<UploadedObject> upload) {
+        MinioOutboxTask pendingPut = bulkDeletionService.enqueuePutConfirmation(bucket, key);
+        UploadedObject uploaded = upload.get();
+        return transactionTemplate.execute(status -> {
+            MinioFile minioFile = create(bucket, uploaded, job);
+            bulkDeletionService.confirmPut(pendingPut);
+            return minioFile;
+        });
+    }
+
+    @Override
+    public MinioFile register(String bucket, String sourceKey, String etag, Long size, Job job) {
+        String key = job.getId() + "/" + sourceKey.substring(sourceKey.lastIndexOf('/') + 1);
+        if (get(key, bucket) == null) checkFileLimit(job);
+        return upload(bucket, key, job, () -> {
+            String rawFileKey = minioService.rearrangeFile(sourceKey, job.getId());
+            log.info("Create minio file from MinIO event {}, {} bytes, etag {}", rawFileKey, size, etag);
+            return new UploadedObject(rawFileKey, etag == null || etag.isEmpty() ? null : "etag:" + etag, size == null ? 0 : size);
+        });
+    }
+
+    private void checkFileLimit(Job job) {
+        if (minioFileRepository.countUploadsByPackageIdAndBucketName(job, bucketRaw) >= FILE_LIMIT) {
             throw new IndexOutOfBoundsException("Превышен лимит файлов для Job. Чтобы добавить новый файл, удалите предыдущие.");
         }
-        String key = minioService.uploadFile(file, bucketRaw, String.valueOf(job.getId()));
-        log.info("Create minio file from Multipart {}", key);
+    }
+
+    @Override
+    public MinioFile create(String bucket, UploadedObject uploaded, Job job) {
+        String key = uploaded.getKey();
         String[] parts = key.split("/");
         MinioFile minioFile = get(key,bucket);
         if (minioFile == null) {
@@ -57,14 +120,25 @@ public class MinioFileServiceImpl implements MinioFileService {
                     .setCreatedAt(LocalDateTime.now())
                     .setPackageId(job);
         } else {
-            List<MinioFile> oldProcessedFiles = minioFileRepository.findByFilePathContainingAndBucketName(key.substring(0, key.lastIndexOf('.')), bucketProcessed);
-            oldProcessedFiles.forEach(oldFile -> {
-                minioService.deleteFile(oldFile.getBucketName(), oldFile.getFilePath());
-                minioFileRepository.delete(oldFile);
-            });
+            if (uploaded.getSha256() == null || !uploaded.getSha256().equals(minioFile.getContentHash())) dropStaleResults(minioFile);
             minioFile.setCreatedAt(LocalDateTime.now());
         }
-        return minioFileRepository.save(minioFile);
+        return minioFileRepository.save(minioFile.setContentHash(uploaded.getSha256()));
+    }
+
+    private void dropStaleResults(MinioFile rawFile) {
+        List<MinioFile> oldProcessedFiles = minioFileRepository
+                .findByBucketNameAndFilePathStartingWith(bucketProcessed, processedPrefix(rawFile.getFilePath()));
+        bulkDeletionService.enqueueDeletion(bucketProcessed,
+                oldProcessedFiles.stream().map(MinioFile::getFilePath).toList(), OutboxOperation.DELETE_OBJECT);
+        minioFileRepository.deleteAllInBatch(oldProcessedFiles);
+        classificationResultRepository.deleteAllByOriginalFile(rawFile);
+        eventPublisher.publishEvent(new JobResultsChangedEvent(List.of(rawFile.getPackageId().getId()),
+                List.of(rawFile.getFilePath())));
+    }
+
+    private String processedPrefix(String rawKey) {
+        return rawKey.substring(0, rawKey.lastIndexOf('.')) + "/";
     }
 
     @Override
@@ -74,11 +148,7 @@ public class MinioFileServiceImpl implements MinioFileService {
 
     @Override
     public void deleteAllFromJob(Job job) {
-        List<MinioFile> minioFileList = minioFileRepository.findByPackageId(job);
-        minioFileList.forEach(minioFile -> {
-            minioService.deleteFile(minioFile.getBucketName(), minioFile.getFilePath());
-            minioFileRepository.delete(minioFile);
-        });
+        bulkDeletionService.deleteJobFiles(List.of(job.getId()));
     }
     @Override
     public List<MinioFile> getMinioFiles(Job job, BucketType type) {
@@ -104,17 +174,19 @@ public class MinioFileServiceImpl implements MinioFileService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long minioFileId) throws NoSuchFileException {
         MinioFile minioFile = minioFileRepository.findById(minioFileId).orElse(null);
         if (minioFile == null) throw new NoSuchFileException("Файл не найден");
-        minioService.deleteFile(minioFile.getBucketName(), minioFile.getFilePath());
         minioFileRepository.delete(minioFile);
+        bulkDeletionService.enqueueDeletion(minioFile.getBucketName(), List.of(minioFile.getFilePath()), OutboxOperation.DELETE_OBJECT);
     }
 
     @Override
     public MinioFile create(String bucket, String key, Job job) {
         log.info("Create minio file {}", key);
         String[] parts = key.split("/");
+        String contentHash = bucket.equals(bucketRaw) ? minioService.computeSha256(bucket, key) : null;
         MinioFile minioFile = get(key,bucket);
         if (minioFile == null) {
             minioFile = new MinioFile()
@@ -124,17 +196,12 @@ public class MinioFileServiceImpl implements MinioFileService {
                     .setCreatedAt(LocalDateTime.now())
                     .setPackageId(job);
         } else {
-            if (bucket.equals(bucketRaw)) {
-                List<MinioFile> oldProcessedFiles = minioFileRepository
-                        .findByFilePathContainingAndBucketName(key.substring(0, key.lastIndexOf('.')), bucketProcessed);
-                oldProcessedFiles.forEach(oldFile -> {
-                    minioService.deleteFile(oldFile.getBucketName(), oldFile.getFilePath());
-                    minioFileRepository.delete(oldFile);
-                });
+            if (bucket.equals(bucketRaw) && (contentHash == null || !contentHash.equals(minioFile.getContentHash()))) {
+                dropStaleResults(minioFile);
             }
             minioFile.setCreatedAt(LocalDateTime.now());
         }
-        return minioFileRepository.save(minioFile);
+        return minioFileRepository.save(minioFile.setContentHash(contentHash));
     }
 
     @Override
@@ -143,11 +210,14 @@ public class MinioFileServiceImpl implements MinioFileService {
         Map<String, List<String>> packages = new HashMap<>();
         rawFiles.forEach(rawFile -> {
             if (rawFile != null && !rawFile.getFileName().endsWith(".mp4")){
-                List<String> processedFiles = minioFileRepository.findByPackageIdAndBucketNameAndFilePathContaining(job,
-                                bucketProcessed, rawFile.getFilePath().substring(0, rawFile.getFilePath().lastIndexOf('.')))
+                List<String> processedFiles = new ArrayList<>(minioFileRepository.findByPackageIdAndBucketNameAndFilePathStartingWith(job,
+                                bucketProcessed, processedPrefix(rawFile.getFilePath()))
                         .stream()
                         .map(MinioFile::getFilePath)
-                        .toList();
+                        .toList());
+                classificationResultRepository.findProcessedKeysByOriginalFile(rawFile).stream()
+                        .filter(key -> !processedFiles.contains(key))
+                        .forEach(processedFiles::add);
                 packages.put(rawFile.getFilePath(), processedFiles);
             }
         });
@@ -175,14 +245,10 @@ public class MinioFileServiceImpl implements MinioFileService {
                     }
 
                     log.info("Загружаем: " + fileName);
-                    MinioFile newFile = new MinioFile()
-                            .setBucketName(bucketRaw)
-                            .setFileName(fileName)
-                            .setFilePath(job.getId() + "/" + fileName)
-                            .setPackageId(job);
-
-                    minioFileRepository.save(newFile);
-                    minioService.uploadFileFromStream(fileName, zis, entry.getSize(), job.getId());
+                    String key = job.getId() + "/" + fileName;
+                    long size = entry.getSize();
+                    MinioFile newFile = upload(bucketRaw, key, job, () -> new UploadedObject(key,
+                            minioService.uploadFileFromStream(fileName, zis, size, job.getId()), size));
                     result.add(newFile.getFilePath());
                     zis.closeEntry();
                 }
@@ -199,4 +265,17 @@ public class MinioFileServiceImpl implements MinioFileService {
         return minioService.generatePresignedUrl(minioFile.getBucketName(), minioFile.getFilePath(), 900);
     }
 
+    @Override
+    public DetectionPayload getDetection(Long classificationResultId) throws NoSuchFileException {
+        ClassificationResult result = classificationResultRepository.findById(classificationResultId).orElse(null);
+        if (result == null) throw new NoSuchFileException("Результат распознавания не найден");
+        return new DetectionPayload()
+                .setSourceImageKey(result.getOriginalFile() == null ? null : result.getOriginalFile().getFilePath())
+                .setObjectKey(result.getProcessedKey())
+                .setMicroClass(result.getMicroClass())
+                .setConfidence(result.getConfidence())
+                .setBbox(result.getBbox())
+                .setTimestamp(result.getCreatedAt());
+    }
+
 }
@@ -0,0 +1,88 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.minio.MinioEventDto;
+import com.lctproject.toolspredict.dto.minio.MinioEventRecord;
+import com.lctproject.toolspredict.event.MinioIngestEnqueuedEvent;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioIngestEvent;
+import com.lctproject.toolspredict.repository.MinioIngestEventRepository;
+import com.lctproject.toolspredict.service.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MinioIngestServiceImpl implements MinioIngestService {
+    private final MinioIngestEventRepository minioIngestEventRepository;
+    private final MinioFileService minioFileService;
+    private final JobService jobService;
+    private final ManageJobsService manageJobsService;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+    @Value("${integrations.minio.ingest.prefix:inbox/}")
+    private String inboxPrefix;
+    @Value("${integrations.minio.ingest.search-marking:false}")
+    private boolean searchMarking;
+
+    @Override
+    @Transactional
+    public int enqueue(MinioEventDto event) {
+        List<MinioEventRecord> records = event.getRecords() == null ? List.of() : event.getRecords();
+        int accepted = 0;
+        LocalDateTime now = LocalDateTime.now();
+        if (records.isEmpty() && event.getKey() != null) {
+            String key = event.getKey();
+            int slash = key.indexOf('/');
+            if (slash > 0) {
+                accepted += accept(event.getEventName(), key.substring(0, slash), key.substring(slash + 1), null, null, now);
+            }
+        }
+        for (MinioEventRecord record : records) {
+            if (record.getS3() == null || record.getS3().getBucket() == null || record.getS3().getObject() == null) continue;
+            accepted += accept(Objects.requireNonNullElse(record.getEventName(), event.getEventName()),
+                    record.getS3().getBucket().getName(),
+                    URLDecoder.decode(record.getS3().getObject().getKey(), StandardCharsets.UTF_8),
+                    record.getS3().getObject().getETag(), record.getS3().getObject().getSize(), now);
+        }
+        if (accepted > 0) eventPublisher.publishEvent(new MinioIngestEnqueuedEvent(accepted));
+        return accepted;
+    }
+
+    private int accept(String eventName, String bucketName, String key, String etag, Long size, LocalDateTime now) {
+        if (eventName == null || !eventName.startsWith("s3:ObjectCreated:")) return 0;
+        if (!bucketRaw.equals(bucketName) || !key.startsWith(inboxPrefix)) {
+            log.debug("Событие MinIO {} для {}/{} пропущено", eventName, bucketName, key);
+            return 0;
+        }
+        return minioIngestEventRepository.insertIfAbsent(bucketName, key, etag == null ? "" : etag, size, eventName, now);
+    }
+
+    @Override
+    public void ingest(MinioIngestEvent event) {
+        String key = event.getObjectKey();
+        String[] parts = key.substring(inboxPrefix.length()).split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Ключ " + key + " не соответствует формату " + inboxPrefix + "{jobId}/{fileName}");
+        }
+        String extension = parts[1].substring(parts[1].lastIndexOf('.') + 1).toLowerCase();
+        if (!List.of("jpg", "png", "mp4").contains(extension)) {
+            throw new IllegalArgumentException("Unsupported file type: " + extension);
+        }
+        Job job = jobService.getJob(Long.parseLong(parts[0]));
+        String rawFileKey = minioFileService.register(bucketRaw, key, event.getEtag(), event.getObjectSize(), job).getFilePath();
+        log.info("Файл {} зарегистрирован в job {} по событию MinIO", rawFileKey, job.getId());
+        manageJobsService.processRawFile(rawFileKey, job.getId(), searchMarking);
+    }
+}
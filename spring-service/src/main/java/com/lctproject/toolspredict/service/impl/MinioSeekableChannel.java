@@ -0,0 +1,98 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.service.MinioService;
+import org.jcodec.common.io.SeekableByteChannel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+
+class MinioSeekableChannel implements SeekableByteChannel {
+    private final MinioService minioService;
+    private final String bucketName;
+    private final String key;
+    private final long size;
+    private final int blockSize;
+    private byte[] block = new byte[0];
+    private long blockStart = -1;
+    private long position;
+    private long bytesFetched;
+    private boolean open = true;
+
+    MinioSeekableChannel(MinioService minioService, String bucketName, String key, int blockSize) {
+        this.minioService = minioService;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.blockSize = blockSize;
+        this.size = minioService.getObjectSize(bucketName, key);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (position >= size) return -1;
+        int total = 0;
+        while (dst.hasRemaining() && position < size) {
+            if (blockStart < 0 || position < blockStart || position >= blockStart + block.length) {
+                fetch(position, dst.remaining());
+            }
+            int offset = (int) (position - blockStart);
+            int count = Math.min(dst.remaining(), block.length - offset);
+            dst.put(block, offset, count);
+            position += count;
+            total += count;
+        }
+        return total;
+    }
+
+    private void fetch(long offset, int wanted) throws IOException {
+        long length = Math.min(Math.max(blockSize, wanted), size - offset);
+        try (InputStream stream = minioService.getObjectRange(bucketName, key, offset, length)) {
+            block = stream.readNBytes((int) length);
+        }
+        if (block.length == 0) throw new IOException("Пустой ответ MinIO при чтении " + key + " с позиции " + offset);
+        blockStart = offset;
+        bytesFetched += block.length;
+    }
+
+    long getBytesFetched() {
+        return bytesFetched;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel setPosition(long newPosition) {
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        block = new byte[0];
+    }
+}
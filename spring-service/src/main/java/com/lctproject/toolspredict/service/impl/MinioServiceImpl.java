@@ -1,98 +1,217 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.component.MinioClientProvider;
 import com.lctproject.toolspredict.dto.minio.MinioFileDto;
+import com.lctproject.toolspredict.dto.minio.UploadedObject;
 import com.lctproject.toolspredict.service.MinioService;
 import io.minio.*;
 import io.minio.errors.*;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
+import io.minio.messages.Part;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.util.unit.DataSize;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.security.InvalidKeyException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipInputStream;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class MinioServiceImpl implements MinioService {
+    private final MinioClientProvider minioClientProvider;
     @Value("${integrations.minio.bucket.raw}")
     private String bucketRaw;
     @Value("${integrations.minio.bucket.processed}")
     private String bucketProcessed;
-    @Value("${minio.endpoint}")
-    private String minioEndpoint;
-    @Value("${minio.access.key}")
-    private String minioAccessKey;
-    @Value("${minio.secret.key}")
-    private String minioSecretKey;
-    private MinioClient client;
+    @Value("${integrations.minio.delete-batch-size:1000}")
+    private int deleteBatchSize;
+    @Value("${integrations.minio.upload.part-size:16MB}")
+    private DataSize uploadPartSize;
+    @Value("${integrations.minio.upload.parallelism:4}")
+    private int uploadParallelism;
+    @Value("${integrations.minio.upload.threads:16}")
+    private int uploadThreads;
+    private ExecutorService uploadExecutor;
 
     @PostConstruct
     public void init() {
-        String endpoint = System.getenv("MINIO_ENDPOINT");
-        String accessKey = System.getenv("MINIO_ROOT_USER");
-        String secretKey = System.getenv("MINIO_ROOT_PASSWORD");
-
-        log.info("MINIO_ENDPOINT: '{}'", endpoint);
-        log.info("MINIO_ROOT_USER: '{}'", accessKey);
-        log.info("MINIO_ROOT_PASSWORD: '{}'", secretKey != null ? "***" : "null");
-
-       try {
-           client = new MinioClient(
-                   minioEndpoint,
-                   minioAccessKey,
-                   minioSecretKey
-           );
-           createBucketIfNotExists(bucketRaw);
-           createBucketIfNotExists(bucketProcessed);
-       } catch (Exception e) {
-           log.error("Ошибка создания бакетов в MinioService: {}", e.getMessage());
-       }
-
-    }
-
-    private void createBucketIfNotExists(String bucketName) throws ServerException, InvalidBucketNameException, InsufficientDataException,
-            ErrorResponseException, IOException, NoSuchAlgorithmException,
-            InvalidKeyException, InvalidResponseException, XmlParserException, InternalException, RegionConflictException {
-        if (!client.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
-            client.makeBucket(MakeBucketArgs.builder()
-                    .bucket(bucketName)
-                    .build());
-        }
+        uploadExecutor = Executors.newFixedThreadPool(uploadThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    private MinioClient client() {
+        return minioClientProvider.getClient();
+    }
+
+    private MultipartMinioClient multipart() {
+        return minioClientProvider.getMultipartClient();
     }
+
     @Override
-    public String uploadFile(MultipartFile file, String bucketName, String packageId) {
-        try {
+    public UploadedObject uploadFile(MultipartFile file, String bucketName, String packageId) {
+        try (DigestInputStream stream = new DigestInputStream(file.getInputStream(), sha256())) {
             String path = packageId + "/" + file.getOriginalFilename();
-            client.putObject(
+            client().putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(path)
-                            .stream(file.getInputStream(), file.getSize(), -1)
+                            .stream(stream, file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build()
             );
 
-            return path;
+            return new UploadedObject(path, hex(stream.getMessageDigest()), file.getSize());
         } catch (Exception ex) {
             log.error("Ошибка загрузки файла в MinIO: {]", ex.getMessage());
         }
         return null;
     }
 
+    @Override
+    public UploadedObject uploadStream(InputStream input, String bucketName, String key, String contentType) {
+        int partSize = (int) Math.max(uploadPartSize.toBytes(), DataSize.ofMegabytes(5).toBytes());
+        Semaphore inFlight = new Semaphore(uploadParallelism);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Future<Part>> parts = new ArrayList<>();
+        String uploadId = null;
+        try {
+            DigestInputStream stream = new DigestInputStream(input, sha256());
+            uploadId = multipart().initiateUpload(bucketName, key, contentType);
+            String id = uploadId;
+            long size = 0;
+            while (true) {
+                byte[] buffer = stream.readNBytes(partSize);
+                if (buffer.length == 0 && !parts.isEmpty()) break;
+                size += buffer.length;
+                int partNumber = parts.size() + 1;
+                inFlight.acquire();
+                if (failure.get() != null) throw failure.get();
+                parts.add(uploadExecutor.submit(() -> {
+                    try {
+                        return new Part(partNumber, multipart().uploadPart(bucketName, key, id, partNumber, buffer));
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                if (buffer.length < partSize) break;
+            }
+            Part[] completed = new Part[parts.size()];
+            for (int i = 0; i < completed.length; i++) {
+                completed[i] = parts.get(i).get();
+            }
+            multipart().completeUpload(bucketName, key, uploadId, completed);
+            log.info("Файл {} загружен потоково: {} байт, {} частей", key, size, completed.length);
+            return new UploadedObject(key, hex(stream.getMessageDigest()), size);
+        } catch (Exception ex) {
+            parts.forEach(part -> part.cancel(true));
+            if (uploadId != null) {
+                try {
+                    multipart().abortUpload(bucketName, key, uploadId);
+                } catch (Exception abortEx) {
+                    log.error("Ошибка отмены загрузки {} в MinIO: {}", key, abortEx.getMessage());
+                }
+            }
+            if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new RuntimeException("Ошибка потоковой загрузки файла в MinIO: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public UploadedObject uploadBytes(byte[] data, String bucketName, String key, String contentType) {
+        try {
+            client().putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(key)
+                            .stream(new ByteArrayInputStream(data), data.length, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+            return new UploadedObject(key, HexFormat.of().formatHex(sha256().digest(data)), data.length);
+        } catch (Exception ex) {
+            throw new RuntimeException("Ошибка загрузки файла в MinIO: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public long getObjectSize(String bucketName, String key) {
+        try {
+            return client().statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(key)
+                            .build()
+            ).length();
+        } catch (Exception ex) {
+            throw new RuntimeException("Ошибка получения информации об объекте MinIO: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public String getObjectEtag(String bucketName, String key) {
+        try {
+            return client().statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(key)
+                            .build()
+            ).etag();
+        } catch (Exception ex) {
+            throw new RuntimeException("Ошибка получения информации об объекте MinIO: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public InputStream getObjectRange(String bucketName, String key, long offset, long length) {
+        try {
+            return client().getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(key)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception ex) {
+            throw new RuntimeException("Ошибка чтения объекта из MinIO: " + ex.getMessage(), ex);
+        }
+    }
+
     @Override
     public void deleteFile(String bucketName, String key) {
         try {
-            client.removeObject(
+            client().removeObject(
                     RemoveObjectArgs.builder()
                             .bucket(bucketName)
                             .object(key)
@@ -106,46 +225,47 @@ public class MinioServiceImpl implements MinioService {
 
     @Override
     public String rearrangeFile(String key, Long jobId) {
-        String[] parts = key.split("/");
-        try (InputStream stream = client.getObject(
-                GetObjectArgs.builder()
-                        .bucket(bucketRaw)
-                        .object(parts[1])
-                        .build()
-        )) {
-            var stat = client.statObject(
-                    StatObjectArgs.builder()
-                            .bucket(bucketRaw)
-                            .object(parts[1])
-                            .build()
-            );
-            String contentType = stat.contentType();
-            client.putObject(
-                    PutObjectArgs.builder()
+        String target = jobId + "/" + key.substring(key.lastIndexOf('/') + 1);
+        try {
+            client().copyObject(
+                    CopyObjectArgs.builder()
                             .bucket(bucketRaw)
-                            .object(String.valueOf(jobId) + "/" + parts[1])
-                            .stream(stream, stat.length(), -1)
-                            .contentType(contentType)
+                            .object(target)
+                            .source(CopySource.builder().bucket(bucketRaw).object(key).build())
                             .build()
             );
-            return key;
-        } catch  (Exception ex) {
-            log.error("Ошибка перемещения файла в MinIO: {}", ex.getMessage());
+        } catch (ErrorResponseException ex) {
+            if (ex.errorResponse().errorCode() != ErrorCode.NO_SUCH_KEY || getObjectEtagOrNull(target) == null) {
+                throw new RuntimeException("Ошибка перемещения файла в MinIO: " + ex.getMessage(), ex);
+            }
+            log.info("Файл {} уже перемещён в {}", key, target);
+            return target;
+        } catch (Exception ex) {
+            throw new RuntimeException("Ошибка перемещения файла в MinIO: " + ex.getMessage(), ex);
+        }
+        deleteFile(bucketRaw, key);
+        return target;
+    }
+
+    private String getObjectEtagOrNull(String key) {
+        try {
+            return getObjectEtag(bucketRaw, key);
+        } catch (Exception ex) {
+            return null;
         }
-        return null;
     }
 
     @Override
     public MinioFileDto getFile(String bucketName, String key) {
         try {
-            var stat = client.statObject(
+            var stat = client().statObject(
                     StatObjectArgs.builder()
                             .bucket(bucketName)
                             .object(key)
                             .build()
             );
 
-            InputStream stream = client.getObject(
+            InputStream stream = client().getObject(
                     GetObjectArgs.builder()
                             .bucket(bucketName)
                             .object(key)
@@ -165,9 +285,10 @@ public class MinioServiceImpl implements MinioService {
     }
 
     @Override
-    public void uploadFileFromStream(String fileName, ZipInputStream zis, long size, Long jobId) {
+    public String uploadFileFromStream(String fileName, ZipInputStream zis, long size, Long jobId) {
         try {
             String path = jobId + "/" + fileName;
+            DigestInputStream stream = new DigestInputStream(zis, sha256());
 
             PutObjectArgs.Builder builder = PutObjectArgs.builder()
                     .bucket(bucketRaw)
@@ -175,24 +296,26 @@ public class MinioServiceImpl implements MinioService {
                     .contentType("application/octet-stream");
 
             if (size > 0) {
-                builder.stream(zis, size, -1);
+                builder.stream(stream, size, -1);
             } else {
-                builder.stream(zis, -1, 10 * 1024 * 1024);
+                builder.stream(stream, -1, 10 * 1024 * 1024);
             }
 
-            client.putObject(builder.build());
+            client().putObject(builder.build());
 
             log.info("Файл успешно загружен: {}", path);
+            return hex(stream.getMessageDigest());
         } catch (Exception ex) {
             log.error("Ошибка загрузки файла в MinIO: {}", ex.getMessage(), ex);
         }
+        return null;
     }
 
     @Override
     public List<Item> listObjects(String bucketName, String prefix) {
         List<Item> items = new ArrayList<>();
         try {
-            Iterable<Result<Item>> results = client.listObjects(
+            Iterable<Result<Item>> results = client().listObjects(
                     ListObjectsArgs.builder()
                             .bucket(bucketName)
                             .prefix(prefix)
@@ -211,10 +334,31 @@ public class MinioServiceImpl implements MinioService {
         return items;
     }
 
+    @Override
+    public List<String> listPrefixes(String bucketName, String startAfter, int limit) {
+        List<String> prefixes = new ArrayList<>();
+        try {
+            ListObjectsArgs.Builder args = ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .delimiter("/")
+                    .maxKeys(limit);
+            if (startAfter != null) args.startAfter(startAfter);
+            for (Result<Item> result : client().listObjects(args.build())) {
+                Item item = result.get();
+                if (!item.isDir() || (startAfter != null && item.objectName().compareTo(startAfter) <= 0)) continue;
+                prefixes.add(item.objectName());
+                if (prefixes.size() >= limit) break;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка при получении списка префиксов из MinIO", e);
+        }
+        return prefixes;
+    }
+
     @Override
     public String generatePresignedUrl(String bucketName, String objectName, int expirySeconds) {
         try {
-            return client.getPresignedObjectUrl(
+            return client().getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
@@ -228,4 +372,75 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    @Override
+    public int deleteFiles(String bucketName, Collection<String> keys) {
+        List<DeleteObject> batch = new ArrayList<>();
+        int deleted = 0;
+        for (String key : keys) {
+            batch.add(new DeleteObject(key));
+            if (batch.size() >= Math.min(deleteBatchSize, 1000)) {
+                deleted += removeBatch(bucketName, batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) deleted += removeBatch(bucketName, batch);
+        return deleted;
+    }
+
+    @Override
+    public int deleteByPrefix(String bucketName, String prefix) {
+        List<String> keys = listObjects(bucketName, prefix).stream()
+                .map(Item::objectName)
+                .toList();
+        if (keys.isEmpty()) return 0;
+        log.info("Удаление {} объектов из {} по префиксу {}", keys.size(), bucketName, prefix);
+        return deleteFiles(bucketName, keys);
+    }
+
+    @Override
+    public String computeSha256(String bucketName, String key) {
+        try (DigestInputStream stream = new DigestInputStream(client().getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(key)
+                        .build()
+        ), sha256())) {
+            stream.transferTo(OutputStream.nullOutputStream());
+            return hex(stream.getMessageDigest());
+        } catch (Exception e) {
+            log.error("Ошибка вычисления хеша объекта {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    private static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private int removeBatch(String bucketName, List<DeleteObject> batch) {
+        List<String> failed = new ArrayList<>();
+        try {
+            Iterable<Result<DeleteError>> results = client().removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .objects(batch)
+                            .build()
+            );
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                failed.add(error.objectName() + ": " + error.message());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Ошибка пакетного удаления объектов из MinIO", e);
+        }
+        if (!failed.isEmpty()) {
+            throw new RuntimeException("Не удалось удалить объекты из MinIO: " + String.join("; ", failed));
+        }
+        return batch.size();
+    }
+
 }
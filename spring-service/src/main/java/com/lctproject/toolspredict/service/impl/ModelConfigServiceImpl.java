@@ -0,0 +1,111 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.component.ConfidenceThresholdConfig;
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+import com.lctproject.toolspredict.model.ModelConfig;
+import com.lctproject.toolspredict.model.ModelToolThreshold;
+import com.lctproject.toolspredict.repository.ModelConfigRepository;
+import com.lctproject.toolspredict.repository.ModelToolThresholdRepository;
+import com.lctproject.toolspredict.repository.ToolRepository;
+import com.lctproject.toolspredict.service.ModelConfigService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelConfigServiceImpl implements ModelConfigService {
+    private final ModelConfigRepository modelConfigRepository;
+    private final ModelToolThresholdRepository modelToolThresholdRepository;
+    private final ToolRepository toolRepository;
+    private final ConfidenceThresholdConfig confidenceThresholdConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!modelConfigRepository.existsById(ModelConfig.SINGLETON_ID)) {
+                ModelConfigSnapshot defaults = confidenceThresholdConfig.getSnapshot();
+                modelConfigRepository.save(new ModelConfig()
+                        .setId(ModelConfig.SINGLETON_ID)
+                        .setConfidenceThreshold(defaults.confidenceThreshold())
+                        .setMergePolicy(defaults.mergePolicy().toString())
+                        .setVersion(1L)
+                        .setUpdatedAt(LocalDateTime.now()));
+            }
+        });
+        reload();
+    }
+
+    @Override
+    public ModelConfigSnapshot reload() {
+        ModelConfigSnapshot snapshot = transactionTemplate.execute(status -> {
+            ModelConfig config = modelConfigRepository.findById(ModelConfig.SINGLETON_ID).orElse(null);
+            if (config == null) return null;
+            Map<Long, Double> toolThresholds = modelToolThresholdRepository.findAll().stream()
+                    .collect(Collectors.toMap(ModelToolThreshold::getToolId, ModelToolThreshold::getConfidenceThreshold));
+            return new ModelConfigSnapshot(config.getConfidenceThreshold(), toolThresholds,
+                    MergePolicy.valueOf(config.getMergePolicy()), config.getVersion());
+        });
+        if (snapshot == null) return confidenceThresholdConfig.getSnapshot();
+        confidenceThresholdConfig.publish(snapshot);
+        log.info("Конфигурация модели обновлена: версия {}, порог {}, политика {}, порогов по инструментам {}",
+                snapshot.version(), snapshot.confidenceThreshold(), snapshot.mergePolicy(), snapshot.toolThresholds().size());
+        return confidenceThresholdConfig.getSnapshot();
+    }
+
+    @Override
+    public ModelConfigSnapshot setConfidenceThreshold(double threshold) {
+        checkThreshold(threshold);
+        return update(config -> config.setConfidenceThreshold(threshold));
+    }
+
+    @Override
+    public ModelConfigSnapshot setToolThreshold(Long toolId, Double threshold) {
+        if (!toolRepository.existsById(toolId)) throw new NoSuchElementException("Инструмент не найден: " + toolId);
+        if (threshold != null) checkThreshold(threshold);
+        return update(config -> {
+            if (threshold == null) {
+                modelToolThresholdRepository.deleteById(toolId);
+            } else {
+                modelToolThresholdRepository.save(new ModelToolThreshold()
+                        .setToolId(toolId)
+                        .setConfidenceThreshold(threshold)
+                        .setUpdatedAt(LocalDateTime.now()));
+            }
+        });
+    }
+
+    @Override
+    public ModelConfigSnapshot setMergePolicy(MergePolicy mergePolicy) {
+        return update(config -> config.setMergePolicy(mergePolicy.toString()));
+    }
+
+    private ModelConfigSnapshot update(Consumer<ModelConfig> change) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ModelConfig config = modelConfigRepository.findForUpdate(ModelConfig.SINGLETON_ID).orElseThrow();
+            change.accept(config);
+            modelConfigRepository.save(config
+                    .setVersion(config.getVersion() + 1)
+                    .setUpdatedAt(LocalDateTime.now()));
+        });
+        return reload();
+    }
+
+    private void checkThreshold(double threshold) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Порог должен быть в диапазоне от 0 до 1");
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.dto.OrderManifest;
 import com.lctproject.toolspredict.dto.OrderRequest;
 import com.lctproject.toolspredict.dto.ToolRequest;
-import com.lctproject.toolspredict.model.Accounting;
 import com.lctproject.toolspredict.model.Order;
 import com.lctproject.toolspredict.model.ToolOrderItem;
 import com.lctproject.toolspredict.repository.AccountingRepository;
@@ -16,6 +16,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,38 +30,27 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final EmployeeRepository employeeRepository;
     private final ToolService toolService;
-    private final JobService jobService;
+    private final BulkDeletionService bulkDeletionService;
     private final AccountingRepository accountingRepository;
 
     @Override
+    @Transactional
     public void createOrder(OrderRequest orderRequest) {
-        try {
-            Order order = new Order()
-                    .setId(orderRequest.getOrderId())
-                    .setEmployee(employeeRepository
-                            .findById(orderRequest.getEmployeeId()).orElseThrow())
-                    .setDescription(orderRequest.getDescription())
-                    .setCreatedAt(LocalDateTime.now())
-                    .setLastModified(LocalDateTime.now());
-            orderRepository.save(order);
-            for (ToolRequest request: orderRequest.getToolsList()) {
-                try {
-                    toolService.addToolOrderItem(request.getId(), order, request.getMarking());
-                } catch (NoSuchElementException e) {
-                    log.error("Не зафиксирован инструмент под номером {}: нет в справочнике.", request.getId());
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            log.error("Ошибка добавления заказа в хранилище: {}", e.getMessage());
-        }
+        Order order = new Order()
+                .setId(orderRequest.getOrderId())
+                .setEmployee(employeeRepository.findById(orderRequest.getEmployeeId())
+                        .orElseThrow(() -> new NoSuchElementException("Сотрудник не найден.")))
+                .setDescription(orderRequest.getDescription())
+                .setCreatedAt(LocalDateTime.now())
+                .setLastModified(LocalDateTime.now());
+        toolService.addToolOrderItems(orderRepository.save(order), orderRequest.getToolsList());
     }
 
     @Override
     public void changeOrder(OrderRequest orderRequest) {
         try {
             Order order = orderRepository.findById(orderRequest.getOrderId()).orElseThrow();
-            toolService.changeToolOrderItems(order.getId(), orderRequest.getToolsList());
+            toolService.changeToolOrderItems(order, orderRequest.getToolsList());
             order.setLastModified(LocalDateTime.now());
             orderRepository.save(order);
         } catch (Exception ex) {
@@ -69,6 +59,17 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
+    public OrderManifest replaceTools(UUID orderId, List<ToolRequest> toolsList) {
+        Order order = getOrder(orderId);
+        if (order == null) throw new NoSuchElementException("Заказ не найден.");
+        OrderManifest manifest = toolService.replaceToolOrderItems(order, toolsList);
+        orderRepository.save(order.setLastModified(LocalDateTime.now()));
+        return manifest;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Order> getPage(int page, int size) {
         int pageSize = Math.min(Math.max(size, 1), 50);
         Pageable pageable = PageRequest.of(page, pageSize, Sort.by("createdAt").descending());
@@ -81,16 +82,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public void deleteOrder(UUID orderId) {
-        List<Accounting> accountingList = accountingRepository.findByOrder(getOrder(orderId));
-        for (Accounting accounting: accountingList) {
-            accountingRepository.delete(accounting);
-            jobService.deleteJob(accounting.getJob().getId());
-        }
+        bulkDeletionService.deleteJobs(accountingRepository.findJobIdsByOrderId(orderId));
         orderRepository.deleteById(orderId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ToolOrderItem> getOrderDetails(UUID orderId, int page, int size) {
         Order order = getOrder(orderId);
         if (order == null) throw new NoSuchElementException("Заказ не найден.");
@@ -0,0 +1,42 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.FrameResponse;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.service.FrameExtractor;
+import com.lctproject.toolspredict.service.MinioFileService;
+import com.lctproject.toolspredict.service.SenderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RemoteFrameExtractor implements FrameExtractor {
+    private final SenderService senderService;
+    private final MinioFileService minioFileService;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+
+    @Override
+    public int extractFrames(String videoKey, Job job, Predicate<MinioFile> onFrame) {
+        FrameResponse frameResponse = senderService.sendVideoToCut(videoKey).getBody();
+        if (frameResponse == null || frameResponse.getResults() == null) throw new NullPointerException("FrameResponse is null");
+        List<MinioFile> frames = new ArrayList<>();
+        for (String frameKey : frameResponse.getResults().values()) {
+            frames.add(minioFileService.create(bucketRaw, frameKey, job));
+        }
+        int handled = 0;
+        for (MinioFile frame : frames) {
+            handled++;
+            if (!onFrame.test(frame)) break;
+        }
+        return handled;
+    }
+}
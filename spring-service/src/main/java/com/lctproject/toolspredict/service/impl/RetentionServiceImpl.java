@@ -0,0 +1,167 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.component.RetentionProperties;
+import com.lctproject.toolspredict.dto.ActionType;
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.dto.PurgeReport;
+import com.lctproject.toolspredict.dto.RetentionReport;
+import com.lctproject.toolspredict.event.JobResultsChangedEvent;
+import com.lctproject.toolspredict.model.ClassificationResult;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.JobSummary;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.repository.*;
+import com.lctproject.toolspredict.service.BulkDeletionService;
+import com.lctproject.toolspredict.service.ComparsionService;
+import com.lctproject.toolspredict.service.MinioService;
+import com.lctproject.toolspredict.service.RetentionService;
+import io.minio.messages.Item;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionServiceImpl implements RetentionService {
+    private final RetentionProperties retentionProperties;
+    private final AccountingRepository accountingRepository;
+    private final ProcessingJobsRepository processingJobsRepository;
+    private final ClassificationResultRepository classificationResultRepository;
+    private final MinioFileRepository minioFileRepository;
+    private final JobSummaryRepository jobSummaryRepository;
+    private final ComparsionService comparsionService;
+    private final BulkDeletionService bulkDeletionService;
+    private final MinioService minioService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+    @Value("${integrations.minio.bucket.processed}")
+    private String bucketProcessed;
+
+    @Override
+    public RetentionReport runRetention() {
+        RetentionReport report = new RetentionReport().setStartedAt(LocalDateTime.now());
+        for (Map.Entry<ActionType, Duration> policy : retentionProperties.getCompactAfter().entrySet()) {
+            compactJobs(policy.getKey(), report.getStartedAt().minus(policy.getValue()), report);
+        }
+        LocalDateTime testCutoff = report.getStartedAt().minus(retentionProperties.getTestDeleteAfter());
+        dropTestPartitions(testCutoff, report);
+        deleteTestJobs(testCutoff, report);
+        report.setFinishedAt(LocalDateTime.now());
+        log.info("Ретенция завершена: сжато job {}, удалено тестовых job {}, секций {}, ошибок {}, освобождено строк {}, байт {}",
+                report.getCompactedJobs(), report.getDeletedTestJobs(), report.getDroppedTestPartitions(), report.getFailedJobs(),
+                report.getReclaimedRows(), report.getReclaimedBytes());
+        return report;
+    }
+
+    private void compactJobs(ActionType actionType, LocalDateTime createdBefore, RetentionReport report) {
+        long afterId = 0L;
+        List<Long> jobIds;
+        do {
+            jobIds = accountingRepository.findJobIdsToCompact(actionType.toString(), createdBefore, afterId,
+                    PageRequest.of(0, retentionProperties.getBatchSize()));
+            for (Long jobId : jobIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> compactJob(jobId, report));
+                    report.setCompactedJobs(report.getCompactedJobs() + 1);
+                } catch (Exception e) {
+                    report.setFailedJobs(report.getFailedJobs() + 1);
+                    log.error("Ошибка сжатия job {}: {}", jobId, e.getMessage());
+                }
+                afterId = jobId;
+            }
+        } while (jobIds.size() >= retentionProperties.getBatchSize());
+    }
+
+    private void compactJob(Long jobId, RetentionReport report) {
+        Job job = processingJobsRepository.findById(jobId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, List<ClassificationResult>> mergedByTool = comparsionService.getMergedResults(jobId).stream()
+                .filter(cr -> cr.getTool() != null)
+                .collect(Collectors.groupingBy(cr -> cr.getTool().getId(), LinkedHashMap::new, Collectors.toList()));
+        List<JobSummary> summary = mergedByTool.values().stream()
+                .map(items -> new JobSummary()
+                        .setJob(job)
+                        .setTool(items.get(0).getTool())
+                        .setToolCount(items.size())
+                        .setMaxConfidence(items.stream()
+                                .map(ClassificationResult::getConfidence)
+                                .filter(Objects::nonNull)
+                                .max(Double::compare)
+                                .orElse(null))
+                        .setMarkings(items.stream()
+                                .map(ClassificationResult::getMarking)
+                                .filter(Objects::nonNull)
+                                .toArray(String[]::new))
+                        .setCreatedAt(now))
+                .toList();
+        jobSummaryRepository.saveAll(summary);
+
+        String prefix = jobId + "/";
+        List<MinioFile> frames = minioFileRepository.findByPackageIdAndBucketName(job, bucketRaw).stream()
+                .filter(file -> isFrame(file.getFilePath()))
+                .toList();
+        Set<String> frameKeys = frames.stream().map(MinioFile::getFilePath).collect(Collectors.toSet());
+        long bytes = minioService.listObjects(bucketProcessed, prefix).stream().mapToLong(Item::size).sum()
+                + minioService.listObjects(bucketRaw, prefix).stream()
+                        .filter(item -> frameKeys.contains(item.objectName()))
+                        .mapToLong(Item::size)
+                        .sum();
+
+        long rows = classificationResultRepository.deleteAllByJobIds(List.of(jobId));
+        rows += minioFileRepository.deleteAllByJobIdAndBucketName(jobId, bucketProcessed);
+        minioFileRepository.deleteAllInBatch(frames);
+        rows += frames.size();
+
+        bulkDeletionService.enqueueDeletion(bucketProcessed, List.of(prefix), OutboxOperation.DELETE_PREFIX);
+        bulkDeletionService.enqueueDeletion(bucketRaw, frameKeys, OutboxOperation.DELETE_OBJECT);
+        processingJobsRepository.save(job.setCompactedAt(now));
+        eventPublisher.publishEvent(new JobResultsChangedEvent(List.of(jobId)));
+
+        report.setReclaimedRows(report.getReclaimedRows() + rows);
+        report.setReclaimedBytes(report.getReclaimedBytes() + bytes);
+        log.info("Job {} сжат: {} позиций в сводке, удалено строк {}, байт {}", jobId, summary.size(), rows, bytes);
+    }
+
+    private void dropTestPartitions(LocalDateTime createdBefore, RetentionReport report) {
+        try {
+            report.setDroppedTestPartitions(classificationResultRepository.dropTestPartitions(createdBefore.toLocalDate()));
+        } catch (Exception e) {
+            log.error("Ошибка удаления секций тестовых результатов: {}", e.getMessage());
+        }
+    }
+
+    private void deleteTestJobs(LocalDateTime createdBefore, RetentionReport report) {
+        long[] bytes = {0, 0};
+        PurgeReport purged = bulkDeletionService.purgeTestJobs(createdBefore, jobIds -> {
+            bytes[0] += bytes[1];
+            bytes[1] = 0;
+            for (Long jobId : jobIds) {
+                for (String bucket : List.of(bucketRaw, bucketProcessed)) {
+                    bytes[1] += minioService.listObjects(bucket, jobId + "/").stream().mapToLong(Item::size).sum();
+                }
+            }
+        });
+        if (purged.getFailedJobs() == 0) bytes[0] += bytes[1];
+        report.setDeletedTestJobs(report.getDeletedTestJobs() + purged.getPurgedJobs());
+        report.setFailedJobs(report.getFailedJobs() + purged.getFailedJobs());
+        report.setReclaimedRows(report.getReclaimedRows() + purged.getReclaimedRows());
+        report.setReclaimedBytes(report.getReclaimedBytes() + bytes[0]);
+    }
+
+    private boolean isFrame(String filePath) {
+        return filePath.indexOf('/') != filePath.lastIndexOf('/');
+    }
+}
@@ -1,40 +1,69 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.component.RecognitionCache;
+import com.lctproject.toolspredict.component.ResilienceProperties;
+import com.lctproject.toolspredict.component.ResilientCaller;
 import com.lctproject.toolspredict.dto.*;
 import com.lctproject.toolspredict.model.KeyRequest;
+import com.lctproject.toolspredict.service.MinioService;
 import com.lctproject.toolspredict.service.SenderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Slf4j
 @Service
 public class SenderServiceImpl implements SenderService {
     private final RestTemplate restTemplate;
+    private final MinioService minioService;
+    private final RecognitionCache recognitionCache;
+    private final ResilientCaller resilientCaller;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
     @Value("${integrations.services.url.recognition}")
-    private String preprocessServiceUrl;
+    private List<String> preprocessServiceUrls;
     @Value("${integrations.services.url.enrichment}")
-    private String inferenceServiceUrl;
+    private List<String> inferenceServiceUrls;
+    @Value("${integrations.recognition.store-detections-in-db}")
+    private boolean storeDetectionsInDb;
 
-    public SenderServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    public SenderServiceImpl(MinioService minioService, RecognitionCache recognitionCache,
+                             ResilientCaller resilientCaller, ResilienceProperties resilienceProperties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(resilienceProperties.getConnectTimeout());
+        requestFactory.setReadTimeout(resilienceProperties.getReadTimeout());
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.minioService = minioService;
+        this.recognitionCache = recognitionCache;
+        this.resilientCaller = resilientCaller;
     }
 
     @Override
     public ResponseEntity<ClassificationResponseDTO> sendToRecognition(String minioKey) {
+        String version = getObjectVersion(minioKey);
+        Optional<ClassificationResponseDTO> cached = recognitionCache.get(bucketRaw, minioKey, version);
+        if (cached.isPresent()) {
+            log.info("Результат распознавания файла {} взят из кэша ({})", minioKey, version);
+            return ResponseEntity.ok(cached.get());
+        }
         try {
             log.info("Отправка ключа файла в сервис предобработки...");
-            KeyRequest request = new KeyRequest(minioKey);
-            ResponseEntity<ClassificationResponseDTO> response = restTemplate.postForEntity(preprocessServiceUrl + "/recognize", request, ClassificationResponseDTO.class);
+            KeyRequest request = new KeyRequest(minioKey, !storeDetectionsInDb);
+            ResponseEntity<ClassificationResponseDTO> response = resilientCaller.call("recognition", preprocessServiceUrls, true,
+                    url -> restTemplate.postForEntity(url + "/recognize", request, ClassificationResponseDTO.class));
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Файл с ключем {} успешно обработан.", minioKey);
+                if (response.getBody() != null) recognitionCache.put(bucketRaw, minioKey, version, response.getBody());
                 return ResponseEntity.ok(response.getBody());
             } else {
                 log.warn("Предобработка вернула статус {}", response.getStatusCode());
@@ -52,11 +81,21 @@ public class SenderServiceImpl implements SenderService {
         }
     }
 
+    private String getObjectVersion(String minioKey) {
+        if (!recognitionCache.isEnabled()) return null;
+        try {
+            return minioService.getObjectEtag(bucketRaw, minioKey) + (storeDetectionsInDb ? ":db" : ":minio");
+        } catch (Exception e) {
+            log.warn("Не удалось получить ETag объекта {}: {}", minioKey, e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public ResponseEntity<EnrichmentResponse> sendToEnrichment(EnrichmentRequest request) {
         try {
-            ResponseEntity<EnrichmentResponse> response = restTemplate.postForEntity(inferenceServiceUrl + "/enrich",
-                    request, EnrichmentResponse.class);
+            ResponseEntity<EnrichmentResponse> response = resilientCaller.call("enrichment", inferenceServiceUrls, true,
+                    url -> restTemplate.postForEntity(url + "/enrich", request, EnrichmentResponse.class));
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Успешно получены микроклассы от inference-сервиса");
                 return response;
@@ -76,7 +115,8 @@ public class SenderServiceImpl implements SenderService {
         try {
             log.info("Отправка ключа видеофайла на разделение по кадрам");
             KeyRequest request = new KeyRequest(minioKey);
-            ResponseEntity<FrameResponse> response = restTemplate.postForEntity(preprocessServiceUrl + "/video/cut", request, FrameResponse.class);
+            ResponseEntity<FrameResponse> response = resilientCaller.call("recognition", preprocessServiceUrls, false,
+                    url -> restTemplate.postForEntity(url + "/video/cut", request, FrameResponse.class));
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Файл с ключем {} успешно разделен по кадрам.", minioKey);
                 return ResponseEntity.ok(response.getBody());
@@ -1,12 +1,18 @@
 package com.lctproject.toolspredict.service.impl;
 
+import com.lctproject.toolspredict.component.OrderManifestCache;
+import com.lctproject.toolspredict.dto.OrderManifest;
 import com.lctproject.toolspredict.dto.ToolRequest;
 import com.lctproject.toolspredict.model.Order;
+import com.lctproject.toolspredict.model.OrderManifestItem;
 import com.lctproject.toolspredict.model.Tool;
 import com.lctproject.toolspredict.model.ToolOrderItem;
+import com.lctproject.toolspredict.repository.OrderManifestRepository;
+import com.lctproject.toolspredict.repository.OrderRepository;
 import com.lctproject.toolspredict.repository.ToolOrderItemRepository;
 import com.lctproject.toolspredict.repository.ToolRepository;
 import com.lctproject.toolspredict.service.ToolService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,10 +20,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -26,33 +40,160 @@ public class ToolServiceImpl implements ToolService {
 
     private final ToolOrderItemRepository toolOrderItemRepository;
     private final ToolRepository toolRepository;
+    private final OrderRepository orderRepository;
+    private final OrderManifestRepository orderManifestRepository;
+    private final OrderManifestCache orderManifestCache;
+    private final EntityManager entityManager;
 
     @Override
+    @Transactional
     public void addToolOrderItem(Long toolId, Order order, String marking) {
         ToolOrderItem toolOrderItem = new ToolOrderItem()
                 .setOrder(order)
                 .setTool(toolRepository.findById(toolId).orElseThrow())
                 .setMarking(marking);
         toolOrderItemRepository.save(toolOrderItem);
+        refreshManifest(order.getId());
     }
 
     @Override
-    public void changeToolOrderItems(UUID orderId, List<ToolRequest> smallerToolsList) {
-        try {
-            List<Long> currToolOrderItemList = toolOrderItemRepository.
-                    findToolOrderItemsByOrderId(orderId).stream()
-                    .map(item -> item.getTool().getId())
-                    .toList();
-            List<Long> result = new ArrayList<>(currToolOrderItemList);
-            for (ToolRequest el : smallerToolsList) {
-                result.remove(el.getId());
+    @Transactional
+    public void addToolOrderItems(Order order, List<ToolRequest> requests) {
+        toolOrderItemRepository.saveAll(buildItems(order, requests));
+        refreshManifest(order.getId());
+    }
+
+    private List<ToolOrderItem> buildItems(Order order, List<ToolRequest> requests) {
+        Map<Long, Tool> tools = toolRepository.findAllById(requests.stream().map(ToolRequest::getId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+        List<ToolOrderItem> items = new ArrayList<>();
+        for (ToolRequest request : requests) {
+            Tool tool = tools.get(request.getId());
+            if (tool == null) {
+                log.error("Не зафиксирован инструмент под номером {}: нет в справочнике.", request.getId());
+                continue;
+            }
+            items.add(new ToolOrderItem()
+                    .setOrder(order)
+                    .setTool(tool)
+                    .setMarking(request.getMarking()));
+        }
+        return items;
+    }
+
+    @Override
+    @Transactional
+    public void changeToolOrderItems(Order order, List<ToolRequest> smallerToolsList) {
+        applyManifest(order, smallerToolsList, false);
+    }
+
+    @Override
+    @Transactional
+    public OrderManifest replaceToolOrderItems(Order order, List<ToolRequest> desiredToolsList) {
+        applyManifest(order, desiredToolsList, true);
+        return getManifest(order.getId(), orderRepository.findManifestVersion(order.getId()));
+    }
+
+    private void applyManifest(Order order, List<ToolRequest> desired, boolean replace) {
+        Map<Long, List<ToolRequest>> desiredByTool = desired.stream()
+                .collect(Collectors.groupingBy(ToolRequest::getId));
+        Map<Long, OrderManifest.ManifestTool> current = getManifest(order).tools().stream()
+                .collect(Collectors.toMap(tool -> tool.tool().getId(), Function.identity()));
+        Set<Long> toolIds = new HashSet<>(current.keySet());
+        toolIds.addAll(desiredByTool.keySet());
+
+        Map<Long, Integer> surplus = new HashMap<>();
+        List<ToolRequest> missing = new ArrayList<>();
+        for (Long toolId : toolIds) {
+            OrderManifest.ManifestTool tool = current.get(toolId);
+            int count = tool == null ? 0 : tool.count();
+            List<ToolRequest> requests = desiredByTool.getOrDefault(toolId, List.of());
+            List<ToolRequest> unmatched = unmatchedRequests(requests, tool == null ? List.of() : tool.markings());
+            int unmatchedMarked = (int) unmatched.stream().filter(request -> request.getMarking() != null).count();
+            int unmatchedUnmarked = unmatched.size() - unmatchedMarked;
+            int reusable = count - (requests.size() - unmatched.size());
+            int excess = replace ? reusable - unmatchedUnmarked : count - requests.size();
+            if (excess > 0) surplus.put(toolId, excess);
+            if (replace) {
+                missing.addAll(unmatched.subList(0, unmatchedMarked));
+                missing.addAll(unmatched.subList(unmatchedMarked + Math.min(reusable, unmatchedUnmarked), unmatched.size()));
+            }
+        }
+        List<Long> surplusIds = surplus.isEmpty() ? List.of() : selectSurplus(order, surplus, desiredByTool);
+        List<ToolOrderItem> added = missing.isEmpty() ? List.of() : buildItems(order, missing);
+        if (surplusIds.isEmpty() && added.isEmpty()) return;
+
+        if (!surplusIds.isEmpty()) toolOrderItemRepository.deleteAllByIds(surplusIds.toArray(Long[]::new));
+        if (!added.isEmpty()) toolOrderItemRepository.saveAll(added);
+        refreshManifest(order.getId());
+        log.info("Заказ {} изменён: удалено позиций {}, добавлено {}", order.getId(), surplusIds.size(), added.size());
+    }
+
+    private List<Long> selectSurplus(Order order, Map<Long, Integer> surplus, Map<Long, List<ToolRequest>> desiredByTool) {
+        Map<Long, Map<String, Integer>> wantedMarkings = new HashMap<>();
+        desiredByTool.forEach((toolId, requests) -> requests.stream()
+                .map(ToolRequest::getMarking)
+                .filter(Objects::nonNull)
+                .forEach(marking -> wantedMarkings.computeIfAbsent(toolId, key -> new HashMap<>()).merge(marking, 1, Integer::sum)));
+
+        Map<Long, List<Long>> candidates = new HashMap<>();
+        for (Object[] row : toolOrderItemRepository.findItemKeys(order.getId(), surplus.keySet().toArray(Long[]::new))) {
+            Long id = ((Number) row[0]).longValue();
+            Long toolId = ((Number) row[1]).longValue();
+            String marking = (String) row[2];
+            Map<String, Integer> wanted = wantedMarkings.getOrDefault(toolId, Map.of());
+            if (marking != null && wanted.getOrDefault(marking, 0) > 0) {
+                wanted.merge(marking, -1, Integer::sum);
+            } else {
+                candidates.computeIfAbsent(toolId, key -> new ArrayList<>()).add(id);
             }
-            for (Long el: result) {
-                toolOrderItemRepository.deleteOneByOrderIdAndReferenceId(orderId, el);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        surplus.forEach((toolId, count) -> {
+            List<Long> toolCandidates = candidates.getOrDefault(toolId, List.of());
+            ids.addAll(toolCandidates.subList(Math.max(0, toolCandidates.size() - count), toolCandidates.size()));
+        });
+        return ids;
+    }
+
+    private List<ToolRequest> unmatchedRequests(List<ToolRequest> requests, List<String> existingMarkings) {
+        Map<String, Integer> existing = new HashMap<>();
+        existingMarkings.forEach(marking -> existing.merge(marking, 1, Integer::sum));
+        List<ToolRequest> marked = new ArrayList<>();
+        List<ToolRequest> unmarked = new ArrayList<>();
+        for (ToolRequest request : requests) {
+            String marking = request.getMarking();
+            if (marking != null && existing.getOrDefault(marking, 0) > 0) {
+                existing.merge(marking, -1, Integer::sum);
+            } else {
+                (marking == null ? unmarked : marked).add(request);
             }
-        } catch (Exception ex) {
-            log.error(ex.getMessage());
         }
+        marked.addAll(unmarked);
+        return marked;
+    }
+
+    @Override
+    public OrderManifest getManifest(Order order) {
+        return getManifest(order.getId(), order.getManifestVersion());
+    }
+
+    private OrderManifest getManifest(UUID orderId, long version) {
+        return orderManifestCache.get(orderId, version, () -> {
+            List<OrderManifestItem> items = orderManifestRepository.findAllByOrderIdOrderByToolId(orderId);
+            items.forEach(entityManager::detach);
+            return new OrderManifest(orderId, version, items.stream()
+                    .map(item -> new OrderManifest.ManifestTool(item.getTool(), item.getRequiredCount(),
+                            item.getMarkings() == null ? List.of() : List.of(item.getMarkings())))
+                    .toList());
+        });
+    }
+
+    private void refreshManifest(UUID orderId) {
+        orderManifestRepository.refresh(orderId);
+        orderManifestCache.invalidate(orderId);
     }
     @Override
     public Tool getTool(Long id) {
@@ -77,7 +218,10 @@ public class ToolServiceImpl implements ToolService {
     }
 
     @Override
+    @Transactional
     public void deleteToolOrderItem(Long id) {
+        UUID orderId = toolOrderItemRepository.findOrderIdById(id);
         toolOrderItemRepository.deleteById(id);
+        if (orderId != null) refreshManifest(orderId);
     }
 }
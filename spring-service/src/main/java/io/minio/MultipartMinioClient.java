@@ -0,0 +1,33 @@
+package io.minio;
+
+import io.minio.messages.Part;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// multipart-операции MinioClient в 7.1.x protected, поэтому адаптер лежит в пакете io.minio
+public class MultipartMinioClient {
+    private final MinioClient client;
+
+    public MultipartMinioClient(MinioClient client) {
+        this.client = client;
+    }
+
+    public String initiateUpload(String bucketName, String objectName, String contentType) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        if (contentType != null) headers.put("Content-Type", contentType);
+        return client.createMultipartUpload(bucketName, objectName, headers);
+    }
+
+    public String uploadPart(String bucketName, String objectName, String uploadId, int partNumber, byte[] data) throws Exception {
+        return client.uploadPart(bucketName, objectName, data, data.length, uploadId, partNumber, null);
+    }
+
+    public void completeUpload(String bucketName, String objectName, String uploadId, Part[] parts) throws Exception {
+        client.completeMultipartUpload(bucketName, objectName, uploadId, parts);
+    }
+
+    public void abortUpload(String bucketName, String objectName, String uploadId) throws Exception {
+        client.abortMultipartUpload(bucketName, objectName, uploadId);
+    }
+}
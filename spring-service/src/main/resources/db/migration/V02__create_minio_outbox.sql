@@ -0,0 +1,12 @@
+create table if not exists public.minio_outbox (
+    id bigserial primary key,
+    operation varchar(32) not null,
+    bucket_name varchar(255) not null,
+    object_key varchar(1024) not null,
+    attempts int not null default 0,
+    last_error varchar(1024),
+    created_at timestamp,
+    next_attempt_at timestamp
+);
+
+create index if not exists idx_minio_outbox_next_attempt on public.minio_outbox (next_attempt_at);
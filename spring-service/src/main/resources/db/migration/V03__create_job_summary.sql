@@ -0,0 +1,14 @@
+alter table public.processing_jobs add column if not exists compacted_at timestamp;
+
+create table if not exists public.job_summary (
+    id bigserial primary key,
+    job_id bigint not null,
+    tool_id int,
+    tool_count int not null,
+    max_confidence double precision,
+    markings text[],
+    created_at timestamp,
+    constraint fk_summary_job_id foreign key (job_id) references processing_jobs(id) on delete cascade,
+    constraint fk_summary_tool_id foreign key (tool_id) references tool(id),
+    unique (job_id, tool_id)
+);
@@ -0,0 +1,3 @@
+alter table public.classification_result add column if not exists micro_class varchar(255);
+alter table public.classification_result add column if not exists bbox double precision[];
+alter table public.classification_result add column if not exists processed_key varchar(1024);
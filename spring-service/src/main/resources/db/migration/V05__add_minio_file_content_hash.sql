@@ -0,0 +1,3 @@
+alter table public.minio_file add column if not exists content_hash varchar(64);
+
+create index if not exists idx_minio_file_content_hash on public.minio_file(content_hash) where content_hash is not null;
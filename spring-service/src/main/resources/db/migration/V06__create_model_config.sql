@@ -0,0 +1,29 @@
+create table if not exists public.model_config (
+    id int primary key check (id = 1),
+    confidence_threshold double precision not null,
+    merge_policy varchar(64) not null default 'MAX_OCCURRENCES',
+    version bigint not null default 1,
+    updated_at timestamp
+);
+
+create table if not exists public.model_tool_threshold (
+    tool_id int primary key,
+    confidence_threshold double precision not null,
+    updated_at timestamp,
+    constraint fk_tool_threshold_tool_id foreign key (tool_id) references tool(id) on delete cascade
+);
+
+create or replace function public.notify_model_config() returns trigger as $$
+begin
+    perform pg_notify('model_config', tg_table_name);
+    return null;
+end;
+$$ language plpgsql;
+
+create trigger model_config_changed
+    after insert or update or delete on public.model_config
+    for each statement execute function public.notify_model_config();
+
+create trigger model_tool_threshold_changed
+    after insert or update or delete on public.model_tool_threshold
+    for each statement execute function public.notify_model_config();
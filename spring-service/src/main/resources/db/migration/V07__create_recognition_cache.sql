@@ -0,0 +1,11 @@
+create table if not exists public.recognition_cache (
+    id bigserial primary key,
+    bucket_name varchar(255) not null,
+    object_key varchar(1024) not null,
+    etag varchar(255) not null,
+    response text not null,
+    created_at timestamp,
+    unique (bucket_name, object_key)
+);
+
+create index if not exists idx_recognition_cache_key_prefix on public.recognition_cache (bucket_name, object_key varchar_pattern_ops);
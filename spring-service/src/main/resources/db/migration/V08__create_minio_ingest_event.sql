@@ -0,0 +1,16 @@
+create table if not exists public.minio_ingest_event (
+    id bigserial primary key,
+    bucket_name varchar(255) not null,
+    object_key varchar(1024) not null,
+    etag varchar(255) not null default '',
+    event_name varchar(128),
+    status varchar(16) not null,
+    attempts int not null default 0,
+    last_error varchar(1024),
+    created_at timestamp,
+    claimed_at timestamp,
+    processed_at timestamp,
+    unique (bucket_name, object_key, etag)
+);
+
+create index if not exists idx_minio_ingest_event_status on public.minio_ingest_event (status, id);
@@ -0,0 +1 @@
+create index if not exists idx_minio_file_bucket_path_prefix on public.minio_file (bucket_name, file_path text_pattern_ops);
@@ -0,0 +1,12 @@
+create index if not exists idx_classification_result_job_tool on public.classification_result (job_id, tool_id);
+create index if not exists idx_classification_result_original_file on public.classification_result (original_file_id);
+create index if not exists idx_classification_result_file on public.classification_result (file_id);
+
+create index if not exists idx_minio_file_package_bucket on public.minio_file (package_id, bucket_name);
+
+create index if not exists idx_accounting_order_action on public.accounting (order_id, action_type);
+create index if not exists idx_accounting_job on public.accounting (job_id);
+
+create index if not exists idx_tool_order_item_order_tool on public.tool_order_item (order_id, tool_id);
+
+create index if not exists idx_employee_order_employee on public.employee_order (employee_id);
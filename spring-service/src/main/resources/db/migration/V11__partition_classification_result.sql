@@ -0,0 +1,99 @@
+alter table public.processing_jobs add column if not exists test_run boolean not null default false;
+
+update public.processing_jobs j set test_run = true
+where not exists (select 1 from public.accounting a where a.job_id = j.id);
+
+alter table public.classification_result rename to classification_result_legacy;
+alter index public.classification_result_pkey rename to classification_result_legacy_pkey;
+drop index if exists public.idx_classification_result_job_tool;
+drop index if exists public.idx_classification_result_original_file;
+drop index if exists public.idx_classification_result_file;
+alter sequence public.classification_result_id_seq owned by none;
+
+create table public.classification_result (
+    id bigint not null default nextval('public.classification_result_id_seq'),
+    job_id bigint,
+    tool_id int,
+    file_id bigint,
+    original_file_id bigint,
+    marking varchar(255),
+    confidence double precision,
+    created_at timestamp not null default now(),
+    micro_class varchar(255),
+    bbox double precision[],
+    processed_key varchar(1024),
+    test_run boolean not null default false,
+    constraint classification_result_pkey primary key (id, test_run, created_at),
+    constraint fk_job_id foreign key (job_id) references processing_jobs(id) on delete cascade,
+    constraint fk_tool_id foreign key (tool_id) references tool(id),
+    constraint fk_classification_minio_file foreign key (file_id) references minio_file(id) on delete cascade,
+    constraint fk_original_minio_file foreign key (original_file_id) references minio_file(id) on delete cascade
+) partition by list (test_run);
+
+create table public.classification_result_work partition of public.classification_result
+    for values in (false) partition by range (created_at);
+create table public.classification_result_test partition of public.classification_result
+    for values in (true) partition by range (created_at);
+
+alter sequence public.classification_result_id_seq owned by public.classification_result.id;
+
+create index if not exists idx_classification_result_job_tool on public.classification_result (job_id, tool_id);
+create index if not exists idx_classification_result_original_file on public.classification_result (original_file_id);
+create index if not exists idx_classification_result_file on public.classification_result (file_id);
+
+create or replace function public.ensure_classification_result_partitions(from_month date, to_month date)
+returns int language plpgsql as $$
+declare
+    month date := date_trunc('month', from_month)::date;
+    kind text;
+    partition_name text;
+    created int := 0;
+begin
+    while month <= to_month loop
+        foreach kind in array array['work', 'test'] loop
+            partition_name := 'classification_result_' || kind || '_' || to_char(month, 'YYYYMM');
+            if to_regclass('public.' || partition_name) is null then
+                execute format('create table if not exists public.%I partition of public.%I for values from (%L) to (%L)',
+                               partition_name, 'classification_result_' || kind, month, (month + interval '1 month')::date);
+                created := created + 1;
+            end if;
+        end loop;
+        month := (month + interval '1 month')::date;
+    end loop;
+    return created;
+end;
+$$;
+
+create or replace function public.drop_classification_result_test_partitions(before date)
+returns int language plpgsql as $$
+declare
+    partition_name text;
+    dropped int := 0;
+begin
+    for partition_name in
+        select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'public.classification_result_test'::regclass
+    loop
+        if (to_date(right(partition_name, 6), 'YYYYMM') + interval '1 month')::date <= before then
+            execute format('drop table public.%I', partition_name);
+            dropped := dropped + 1;
+        end if;
+    end loop;
+    return dropped;
+end;
+$$;
+
+select public.ensure_classification_result_partitions(
+    coalesce((select min(coalesce(l.created_at, j.create_date))
+              from public.classification_result_legacy l
+              left join public.processing_jobs j on j.id = l.job_id), now())::date,
+    (now() + interval '2 months')::date);
+
+insert into public.classification_result (id, job_id, tool_id, file_id, original_file_id, marking, confidence,
+                                          created_at, micro_class, bbox, processed_key, test_run)
+select l.id, l.job_id, l.tool_id, l.file_id, l.original_file_id, l.marking, l.confidence,
+       coalesce(l.created_at, j.create_date, now()), l.micro_class, l.bbox, l.processed_key, coalesce(j.test_run, true)
+from public.classification_result_legacy l
+left join public.processing_jobs j on j.id = l.job_id;
+
+drop table public.classification_result_legacy;
@@ -0,0 +1,2 @@
+alter sequence public.classification_result_id_seq increment by 50;
+alter sequence public.tool_order_item_id_seq increment by 50;
@@ -0,0 +1,21 @@
+alter table public.employee_order add column if not exists manifest_version bigint not null default 0;
+
+create table if not exists public.order_manifest (
+    order_id uuid not null,
+    tool_id int not null,
+    required_count int not null,
+    markings text[],
+    constraint pk_order_manifest primary key (order_id, tool_id),
+    constraint fk_manifest_order_id foreign key (order_id) references employee_order(id) on delete cascade,
+    constraint fk_manifest_tool_id foreign key (tool_id) references tool(id)
+);
+
+insert into public.order_manifest (order_id, tool_id, required_count, markings)
+select order_id, tool_id, count(*), array_remove(array_agg(marking order by id), null)
+from public.tool_order_item
+where order_id is not null and tool_id is not null
+group by order_id, tool_id
+on conflict do nothing;
+
+update public.employee_order o set manifest_version = 1
+where exists (select 1 from public.order_manifest m where m.order_id = o.id);
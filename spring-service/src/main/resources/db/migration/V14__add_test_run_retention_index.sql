@@ -0,0 +1 @@
+create index if not exists idx_processing_jobs_test_run_create_date on public.processing_jobs (create_date, id) where test_run;
@@ -0,0 +1 @@
+alter table public.minio_ingest_event add column if not exists object_size bigint;
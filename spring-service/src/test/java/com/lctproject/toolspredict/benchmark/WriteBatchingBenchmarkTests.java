@@ -0,0 +1,88 @@
+package com.lctproject.toolspredict.benchmark;
+
+import com.lctproject.toolspredict.dto.ClassificationResultDTO;
+import com.lctproject.toolspredict.dto.OrderRequest;
+import com.lctproject.toolspredict.dto.ToolRequest;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.model.Tool;
+import com.lctproject.toolspredict.repository.MinioFileRepository;
+import com.lctproject.toolspredict.repository.ProcessingJobsRepository;
+import com.lctproject.toolspredict.repository.ToolRepository;
+import com.lctproject.toolspredict.service.BulkDeletionService;
+import com.lctproject.toolspredict.service.LogService;
+import com.lctproject.toolspredict.service.MinioService;
+import com.lctproject.toolspredict.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WriteBatchingBenchmarkTests {
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 4);
+    private static final int DETECTIONS = Integer.getInteger("benchmark.detections", 500);
+    private static final int ORDER_ITEMS = Integer.getInteger("benchmark.order-items", 300);
+
+    @MockitoBean
+    private MinioService minioService;
+    @Autowired
+    private LogService logService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private BulkDeletionService bulkDeletionService;
+    @Autowired
+    private ProcessingJobsRepository processingJobsRepository;
+    @Autowired
+    private MinioFileRepository minioFileRepository;
+    @Autowired
+    private ToolRepository toolRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void detectionsAndOrderImport() {
+        List<Tool> tools = toolRepository.findAll();
+        Long employeeId = jdbcTemplate.queryForObject("select min(id) from public.employee", Long.class);
+        for (int round = 0; round < ROUNDS; round++) {
+            Job job = processingJobsRepository.save(new Job().setStatus("BENCHMARK").setCreateDate(LocalDateTime.now()));
+            MinioFile raw = minioFileRepository.save(new MinioFile()
+                    .setBucketName("bucket-raw")
+                    .setFilePath("benchmark/" + job.getId() + "/frame.jpg")
+                    .setFileName("frame.jpg")
+                    .setPackageId(job));
+            Map<String, ClassificationResultDTO> detections = new LinkedHashMap<>();
+            for (int i = 0; i < DETECTIONS; i++) {
+                detections.put("benchmark/" + job.getId() + "/frame/" + i + ".json", new ClassificationResultDTO(
+                        tools.get(i % tools.size()).getName(), 0.9, new double[]{1, 2, 3, 4}, null, raw.getFilePath()));
+            }
+            List<ToolRequest> items = new ArrayList<>();
+            for (int i = 0; i < ORDER_ITEMS; i++) items.add(new ToolRequest(tools.get(i % tools.size()).getId(), "M" + i));
+            UUID orderId = UUID.randomUUID();
+
+            long started = System.nanoTime();
+            logService.logClassificationResults(job.getId(), detections);
+            long detectionsLogged = System.nanoTime();
+            orderService.createOrder(new OrderRequest(orderId, employeeId, items, "benchmark"));
+            long orderCreated = System.nanoTime();
+
+            log.info("Раунд {}: {} детекций за {} мс, заказ из {} позиций за {} мс", round,
+                    DETECTIONS, (detectionsLogged - started) / 1_000_000, ORDER_ITEMS, (orderCreated - detectionsLogged) / 1_000_000);
+            bulkDeletionService.deleteJobs(List.of(job.getId()));
+            orderService.deleteOrder(orderId);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.lctproject.toolspredict.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+    private static final long OPEN_NANOS = 1_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, OPEN_NANOS);
+
+    @Test
+    void staysClosedUntilMinimumCallsReached() {
+        assertFalse(breaker.onFailure(0));
+        assertFalse(breaker.onFailure(0));
+        assertFalse(breaker.onFailure(0));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire(0));
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertFalse(breaker.onFailure(0));
+        assertTrue(breaker.onFailure(100));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(100 + OPEN_NANOS - 1));
+        assertFalse(breaker.onFailure(200));
+    }
+
+    @Test
+    void ignoresFailuresThatLeftTheSlidingWindow() {
+        CircuitBreaker small = new CircuitBreaker(4, 4, 0.5, OPEN_NANOS);
+        small.onFailure(0);
+        small.onSuccess();
+        small.onSuccess();
+        small.onSuccess();
+        small.onSuccess();
+        assertFalse(small.onFailure(0));
+        assertEquals(CircuitBreaker.State.CLOSED, small.getState());
+    }
+
+    @Test
+    void halfOpenProbeSuccessClosesBreaker() {
+        trip(0);
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS + 1));
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.onFailure(OPEN_NANOS + 2));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopensBreaker() {
+        trip(0);
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        assertTrue(breaker.onFailure(OPEN_NANOS + 10));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(2 * OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS + 10));
+    }
+
+    @Test
+    void halfOpenAllowsNewProbeAfterStalledOne() {
+        trip(0);
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        assertFalse(breaker.tryAcquire(2 * OPEN_NANOS - 1));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    private void trip(long now) {
+        for (int i = 0; i < 4; i++) breaker.onFailure(now);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
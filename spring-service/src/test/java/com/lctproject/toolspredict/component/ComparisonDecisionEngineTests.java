@@ -0,0 +1,87 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.MergePolicy;
+import com.lctproject.toolspredict.dto.ModelConfigSnapshot;
+import com.lctproject.toolspredict.dto.comparison.ComparisonDecision;
+import com.lctproject.toolspredict.dto.comparison.ComparisonReport;
+import com.lctproject.toolspredict.dto.comparison.ToolDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.lctproject.toolspredict.component.ComparisonFixtures.ordered;
+import static com.lctproject.toolspredict.component.ComparisonFixtures.scored;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComparisonDecisionEngineTests {
+    private static final ModelConfigSnapshot CONFIG =
+            new ModelConfigSnapshot(0.5, Map.of(3L, 0.9), MergePolicy.MAX_OCCURRENCES, 1);
+
+    private final ComparisonDecisionEngine engine = new ComparisonDecisionEngine();
+
+    @Test
+    void matchesWhenEveryOrderedToolIsConfidentlyDetected() {
+        ComparisonReport report = engine.decide(
+                List.of(scored(1, 0.8), scored(1, 0.5), scored(2, 0.99)),
+                List.of(ordered(1), ordered(1), ordered(2)), CONFIG);
+
+        assertEquals(ComparisonDecision.MATCH, report.getDecision());
+        assertTrue(report.getMissing().isEmpty());
+        assertTrue(report.getExtra().isEmpty());
+        assertTrue(report.getUncertain().isEmpty());
+    }
+
+    @Test
+    void uncertainWhenShortfallIsCoveredByLowConfidenceResults() {
+        ComparisonReport report = engine.decide(
+                List.of(scored(1, 0.8), scored(1, 0.2), scored(2, null)),
+                List.of(ordered(1), ordered(1), ordered(2)), CONFIG);
+
+        assertEquals(ComparisonDecision.UNCERTAIN, report.getDecision());
+        assertEquals(List.of(1L, 2L), report.getUncertain().stream().map(ToolDiff::getToolId).toList());
+        assertTrue(report.getUncertain().stream().allMatch(diff -> diff.getCount() == 1));
+        assertTrue(report.getMissing().isEmpty());
+    }
+
+    @Test
+    void appliesPerToolThreshold() {
+        ComparisonReport report = engine.decide(List.of(scored(3, 0.8)), List.of(ordered(3)), CONFIG);
+
+        assertEquals(ComparisonDecision.UNCERTAIN, report.getDecision());
+        assertEquals(0.9, report.getUncertain().get(0).getThreshold());
+    }
+
+    @Test
+    void mismatchWhenOrderedToolIsMissing() {
+        ComparisonReport report = engine.decide(
+                List.of(scored(1, 0.3)),
+                List.of(ordered(1), ordered(1), ordered(1), ordered(2)), CONFIG);
+
+        assertEquals(ComparisonDecision.MISMATCH, report.getDecision());
+        assertEquals(1, report.getUncertain().size());
+        assertEquals(1, report.getUncertain().get(0).getCount());
+        assertEquals(2, report.getMissing().size());
+        ToolDiff partlyMissing = report.getMissing().get(0);
+        assertEquals(1L, partlyMissing.getToolId());
+        assertEquals(2, partlyMissing.getCount());
+        assertEquals(3, partlyMissing.getExpected());
+        assertEquals(2L, report.getMissing().get(1).getToolId());
+        assertEquals(1, report.getMissing().get(1).getCount());
+        assertTrue(report.getExtra().isEmpty());
+    }
+
+    @Test
+    void mismatchWhenUnorderedToolIsDetected() {
+        ComparisonReport report = engine.decide(
+                List.of(scored(1, 0.9), scored(1, 0.9), scored(2, 0.7), scored(4, 0.1)),
+                List.of(ordered(1)), CONFIG);
+
+        assertEquals(ComparisonDecision.MISMATCH, report.getDecision());
+        assertEquals(List.of(1L, 2L), report.getExtra().stream().map(ToolDiff::getToolId).toList());
+        assertEquals(List.of(1, 1), report.getExtra().stream().map(ToolDiff::getCount).toList());
+        assertTrue(report.getMissing().isEmpty());
+        assertTrue(report.getUncertain().isEmpty());
+    }
+}
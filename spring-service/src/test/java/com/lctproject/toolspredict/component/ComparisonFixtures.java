@@ -0,0 +1,37 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.model.ClassificationResult;
+import com.lctproject.toolspredict.model.Tool;
+import com.lctproject.toolspredict.model.ToolOrderItem;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class ComparisonFixtures {
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private ComparisonFixtures() {
+    }
+
+    static ToolOrderItem ordered(long toolId) {
+        return new ToolOrderItem().setTool(tool(toolId));
+    }
+
+    static ToolOrderItem ordered(long toolId, String marking) {
+        return ordered(toolId).setId(IDS.incrementAndGet()).setMarking(marking);
+    }
+
+    static ClassificationResult detected(long toolId, String marking) {
+        return new ClassificationResult().setId(IDS.incrementAndGet()).setTool(tool(toolId)).setMarking(marking);
+    }
+
+    static ClassificationResult scored(long toolId, Double confidence) {
+        return new ClassificationResult().setTool(tool(toolId)).setConfidence(confidence);
+    }
+
+    static Tool tool(long id) {
+        Tool tool = new Tool();
+        tool.setId(id);
+        tool.setName("tool-" + id);
+        return tool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lctproject.toolspredict.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyWindowTests {
+
+    @Test
+    void reportsNoPercentileUntilEnoughSamples() {
+        LatencyWindow window = new LatencyWindow(100);
+        for (int i = 1; i < 20; i++) window.record(i);
+
+        assertEquals(-1, window.percentile(0.95));
+        window.record(20);
+        assertEquals(19, window.percentile(0.95));
+        assertEquals(20, window.percentile(1.0));
+        assertEquals(10, window.percentile(0.5));
+    }
+
+    @Test
+    void keepsOnlyLatestSamples() {
+        LatencyWindow window = new LatencyWindow(20);
+        for (int i = 0; i < 20; i++) window.record(1_000);
+        for (int i = 1; i <= 20; i++) window.record(i);
+
+        assertEquals(20, window.percentile(1.0));
+        assertEquals(1, window.percentile(0.0));
+    }
+}
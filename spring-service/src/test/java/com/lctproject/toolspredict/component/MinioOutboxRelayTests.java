@@ -0,0 +1,128 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.OutboxOperation;
+import com.lctproject.toolspredict.repository.MinioFileRepository;
+import com.lctproject.toolspredict.repository.MinioOutboxRepository;
+import com.lctproject.toolspredict.service.MinioService;
+import io.minio.messages.Item;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Transactional
+class MinioOutboxRelayTests {
+    private static final String BUCKET = "bucket-processed";
+
+    @Autowired
+    private MinioOutboxRepository minioOutboxRepository;
+    @Autowired
+    private MinioFileRepository minioFileRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    private MinioService minioService;
+    private MinioOutboxRelay relay;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        minioService = mock(MinioService.class);
+        relay = new MinioOutboxRelay(minioOutboxRepository, minioFileRepository, minioService, transactionTemplate);
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "claimTimeout", Duration.ofMinutes(10));
+        prefix = "outbox-test-" + UUID.randomUUID() + "/";
+    }
+
+    @Test
+    void deleteObjectSkipsKeysWithLiveRows() {
+        liveFile(prefix + "live.json");
+        enqueue(OutboxOperation.DELETE_OBJECT, prefix + "live.json");
+        enqueue(OutboxOperation.DELETE_OBJECT, prefix + "stale.json");
+
+        relay.relay();
+
+        verify(minioService).deleteFiles(BUCKET, Set.of(prefix + "stale.json"));
+        verify(minioService, never()).deleteFiles(eq(BUCKET), argThat((Collection<String> keys) -> keys.contains(prefix + "live.json")));
+        assertEquals(0, pendingTasks());
+    }
+
+    @Test
+    void deletePrefixSkipsKeysWithLiveRows() {
+        liveFile(prefix + "live.json");
+        List<Item> objects = List.of(item(prefix + "live.json"), item(prefix + "stale.json"));
+        when(minioService.listObjects(BUCKET, prefix)).thenReturn(objects);
+        enqueue(OutboxOperation.DELETE_PREFIX, prefix);
+
+        relay.relay();
+
+        verify(minioService).deleteFiles(BUCKET, Set.of(prefix + "stale.json"));
+        assertEquals(0, pendingTasks());
+    }
+
+    @Test
+    void failedDeletionIsRescheduled() {
+        when(minioService.deleteFiles(eq(BUCKET), anyCollection())).thenThrow(new RuntimeException("MinIO недоступен"));
+        enqueue(OutboxOperation.DELETE_OBJECT, prefix + "stale.json");
+
+        relay.relay();
+        entityManager.flush();
+
+        assertEquals(1, pendingTasks());
+        Integer attempts = jdbcTemplate.queryForObject(
+                "select attempts from public.minio_outbox where object_key like ? || '%'", Integer.class, prefix);
+        LocalDateTime nextAttemptAt = jdbcTemplate.queryForObject(
+                "select next_attempt_at from public.minio_outbox where object_key like ? || '%'", LocalDateTime.class, prefix);
+        assertEquals(1, attempts);
+        assertTrue(nextAttemptAt.isAfter(LocalDateTime.now()));
+        verify(minioService, never()).deleteByPrefix(any(), any());
+    }
+
+    private void liveFile(String key) {
+        jdbcTemplate.update("insert into public.minio_file (bucket_name, file_path, file_name, created_at) values (?, ?, ?, now())",
+                BUCKET, key, key.substring(key.lastIndexOf('/') + 1));
+    }
+
+    private void enqueue(OutboxOperation operation, String key) {
+        jdbcTemplate.update("insert into public.minio_outbox (operation, bucket_name, object_key, created_at, next_attempt_at) " +
+                "values (?, ?, ?, now(), now() - interval '1 minute')", operation.toString(), BUCKET, key);
+    }
+
+    private int pendingTasks() {
+        return jdbcTemplate.queryForObject("select count(*) from public.minio_outbox where object_key like ? || '%'",
+                Integer.class, prefix);
+    }
+
+    private static Item item(String key) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(key);
+        return item;
+    }
+}
@@ -0,0 +1,134 @@
+package com.lctproject.toolspredict.component;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientCallerTests {
+    private static final List<String> URLS = List.of("http://replica-1", "http://replica-2");
+    private static final int MAX_CONCURRENT = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaBalancer replicaBalancer;
+    private ResilientCaller caller;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties.Policy policy = new ResilienceProperties.Policy();
+        policy.setHedge(true);
+        policy.setHedgeMinDelay(Duration.ofMillis(20));
+        policy.setMaxAttempts(1);
+        policy.setMaxConcurrentPerInstance(MAX_CONCURRENT);
+        caller = newCaller(policy);
+        caller.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        caller.shutdown();
+    }
+
+    @Test
+    void cancelledQueuedHedgesReleaseTheirPermits() throws Exception {
+        for (int i = 0; i < 20; i++) caller.call("recognition", URLS, true, url -> url);
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        Thread saturating = new Thread(() -> caller.call("recognition", URLS, true, url -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return url;
+        }));
+        saturating.start();
+        Thread.sleep(200);
+
+        AtomicReference<RuntimeException> interruptedFailure = new AtomicReference<>();
+        Thread queued = new Thread(() -> {
+            try {
+                caller.call("recognition", URLS, true, url -> url);
+            } catch (RuntimeException e) {
+                interruptedFailure.set(e);
+            }
+        });
+        queued.start();
+        Thread.sleep(200);
+        queued.interrupt();
+        queued.join(TimeUnit.SECONDS.toMillis(5));
+
+        blocked.countDown();
+        saturating.join(TimeUnit.SECONDS.toMillis(5));
+        Thread.sleep(200);
+
+        assertTrue(interruptedFailure.get() != null && interruptedFailure.get().getMessage().contains("прерван"));
+        for (String url : URLS) {
+            assertEquals(0.0, meterRegistry.get("downstream.replica.outstanding").tag("instance", url).gauge().value(), url);
+        }
+        assertEquals(URLS.size() * MAX_CONCURRENT, availablePermits());
+    }
+
+    @Test
+    void rejectsPolicyWithoutAttempts() {
+        ResilienceProperties.Policy policy = new ResilienceProperties.Policy();
+        policy.setMaxAttempts(0);
+
+        assertThrows(IllegalArgumentException.class, newCaller(policy)::init);
+    }
+
+    @Test
+    void internalServerErrorsOpenTheBreakerWithoutRetries() {
+        ResilienceProperties.Policy policy = new ResilienceProperties.Policy();
+        policy.setMinimumCalls(3);
+        policy.setSlidingWindow(3);
+        ResilientCaller breakerCaller = newCaller(policy);
+        breakerCaller.init();
+        AtomicInteger requests = new AtomicInteger();
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(HttpServerErrorException.class, () -> breakerCaller.call("recognition", URLS, false, url -> {
+                    requests.incrementAndGet();
+                    throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+                }));
+            }
+            RuntimeException rejected = assertThrows(RuntimeException.class,
+                    () -> breakerCaller.call("recognition", URLS, false, url -> requests.incrementAndGet()));
+
+            assertTrue(rejected.getMessage().contains("временно недоступен"));
+            assertEquals(3, requests.get());
+            assertEquals(1.0, meterRegistry.get("downstream.circuit.trips").tag("downstream", "recognition").counter().count());
+        } finally {
+            breakerCaller.shutdown();
+        }
+    }
+
+    private ResilientCaller newCaller(ResilienceProperties.Policy policy) {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setHedgeThreads(1);
+        properties.getDownstreams().put("recognition", policy);
+        meterRegistry = new SimpleMeterRegistry();
+        replicaBalancer = new ReplicaBalancer(properties, meterRegistry);
+        return new ResilientCaller(properties, meterRegistry, replicaBalancer);
+    }
+
+    private int availablePermits() {
+        int permits = 0;
+        while (replicaBalancer.tryAcquire("recognition", URLS, Set.of()) != null) permits++;
+        return permits;
+    }
+}
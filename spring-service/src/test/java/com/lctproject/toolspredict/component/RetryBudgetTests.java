@@ -0,0 +1,44 @@
+package com.lctproject.toolspredict.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTests {
+
+    @Test
+    void exhaustsAfterMaxTokensRetries() {
+        RetryBudget budget = new RetryBudget(0.2, 3);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        assertEquals(0.0, budget.getTokens());
+    }
+
+    @Test
+    void refillsByRatioPerRequest() {
+        RetryBudget budget = new RetryBudget(0.25, 1);
+        assertTrue(budget.tryAcquire());
+
+        for (int i = 0; i < 3; i++) budget.onRequest();
+        assertFalse(budget.tryAcquire());
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void refillIsCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        for (int i = 0; i < 10; i++) budget.onRequest();
+
+        assertEquals(2.0, budget.getTokens());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+}
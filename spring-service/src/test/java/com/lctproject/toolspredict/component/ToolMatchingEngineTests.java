@@ -0,0 +1,138 @@
+package com.lctproject.toolspredict.component;
+
+import com.lctproject.toolspredict.dto.comparison.ItemMatch;
+import com.lctproject.toolspredict.dto.comparison.MatchType;
+import com.lctproject.toolspredict.dto.comparison.MatchingReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.lctproject.toolspredict.component.ComparisonFixtures.detected;
+import static com.lctproject.toolspredict.component.ComparisonFixtures.ordered;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolMatchingEngineTests {
+    private ToolMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ToolMatchingEngine();
+        ReflectionTestUtils.setField(engine, "maxDistance", 0.34);
+        ReflectionTestUtils.setField(engine, "assignmentLimit", 300);
+    }
+
+    @Test
+    void reportsMissingWhenFewerToolsDetected() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, null), detected(1, null), detected(2, null)),
+                List.of(ordered(1, null), ordered(1, null), ordered(1, null), ordered(2, null)));
+
+        assertEquals(3, report.getMatched().size());
+        assertTrue(report.getMatched().stream().allMatch(match -> match.getType() == MatchType.TOOL_ONLY));
+        assertEquals(1, report.getMissing().size());
+        assertEquals(1L, report.getMissing().get(0).getToolId());
+        assertTrue(report.getExtra().isEmpty());
+    }
+
+    @Test
+    void reportsExtraWhenMoreToolsDetected() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, null), detected(1, null), detected(3, null)),
+                List.of(ordered(1, null)));
+
+        assertEquals(1, report.getMatched().size());
+        assertTrue(report.getMissing().isEmpty());
+        assertEquals(2, report.getExtra().size());
+        assertEquals(List.of(1L, 3L), report.getExtra().stream().map(ItemMatch::getToolId).toList());
+    }
+
+    @Test
+    void matchesDuplicateToolsWithSameMarkingExactly() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, "ab-12"), detected(1, "AB 12")),
+                List.of(ordered(1, "AB-12"), ordered(1, "AB-12")));
+
+        assertEquals(2, report.getMatched().size());
+        assertTrue(report.getMatched().stream().allMatch(match -> match.getType() == MatchType.EXACT));
+        assertEquals(2, report.getMatched().stream().map(ItemMatch::getOrderItemId).distinct().count());
+        assertTrue(report.getMissing().isEmpty());
+        assertTrue(report.getExtra().isEmpty());
+    }
+
+    @Test
+    void prefersMarkedOverUnmarkedOrderItemsForExactMatch() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, "AB12"), detected(1, null)),
+                List.of(ordered(1, null), ordered(1, "AB12")));
+
+        assertEquals(List.of(MatchType.EXACT, MatchType.TOOL_ONLY),
+                report.getMatched().stream().map(ItemMatch::getType).toList());
+        assertEquals("AB12", report.getMatched().get(0).getExpectedMarking());
+    }
+
+    @Test
+    void assignsTiedMarkingsOneToOne() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, "AB12X"), detected(1, "AB12Y")),
+                List.of(ordered(1, "AB120"), ordered(1, "AB129")));
+
+        assertEquals(2, report.getMatched().size());
+        assertTrue(report.getMatched().stream().allMatch(match -> match.getType() == MatchType.FUZZY && match.getDistance() == 1));
+        assertEquals(2, report.getMatched().stream().map(ItemMatch::getOrderItemId).distinct().count());
+        assertTrue(report.getMarkingConflicts().isEmpty());
+    }
+
+    @Test
+    void leavesLoserOfMarkingTieMissing() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, "AB12X")),
+                List.of(ordered(1, "AB120"), ordered(1, "AB129")));
+
+        assertEquals(1, report.getMatched().size());
+        assertEquals(MatchType.FUZZY, report.getMatched().get(0).getType());
+        assertEquals(1, report.getMissing().size());
+        assertTrue(report.getMarkingConflicts().isEmpty());
+    }
+
+    @Test
+    void greedyAssignmentAboveLimitMatchesLikeHungarian() {
+        ReflectionTestUtils.setField(engine, "assignmentLimit", 1);
+        MatchingReport report = engine.match(
+                List.of(detected(1, "AB12X"), detected(1, "CD340")),
+                List.of(ordered(1, "CD345"), ordered(1, "AB120")));
+
+        assertEquals(2, report.getMatched().size());
+        for (ItemMatch match : report.getMatched()) {
+            assertEquals(MatchType.FUZZY, match.getType());
+            assertEquals(match.getExpectedMarking().substring(0, 2), match.getDetectedMarking().substring(0, 2));
+        }
+    }
+
+    @Test
+    void fuzzyMatchStopsAtMaxDistance() {
+        MatchingReport withinThreshold = engine.match(List.of(detected(1, "ABX")), List.of(ordered(1, "ABC")));
+        assertEquals(MatchType.FUZZY, withinThreshold.getMatched().get(0).getType());
+
+        MatchingReport overThreshold = engine.match(List.of(detected(1, "AX")), List.of(ordered(1, "AB")));
+        assertTrue(overThreshold.getMatched().isEmpty());
+        assertEquals(1, overThreshold.getMarkingConflicts().size());
+        assertEquals(1, overThreshold.getMarkingConflicts().get(0).getDistance());
+    }
+
+    @Test
+    void reportsConflictWhenNoMarkingIsClose() {
+        MatchingReport report = engine.match(
+                List.of(detected(1, "XY9876"), detected(2, "QQ1")),
+                List.of(ordered(1, "AB1234")));
+
+        assertTrue(report.getMatched().isEmpty());
+        assertEquals(1, report.getMarkingConflicts().size());
+        assertEquals(MatchType.MARKING_CONFLICT, report.getMarkingConflicts().get(0).getType());
+        assertEquals(6, report.getMarkingConflicts().get(0).getDistance());
+        assertEquals(1, report.getExtra().size());
+        assertEquals(2L, report.getExtra().get(0).getToolId());
+    }
+}
@@ -0,0 +1,88 @@
+package com.lctproject.toolspredict.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ForeignKeyIndexPlanTests {
+    private static final int JOBS = 2000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Long jobId;
+    private Long rawFileId;
+    private UUID orderId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into public.processing_jobs (status, create_date, last_modified) " +
+                "select 'INDEX_TEST', now(), now() from generate_series(1, ?)", JOBS);
+        jdbcTemplate.update("insert into public.employee_order (id, description, employee_id, created_at) " +
+                "select gen_random_uuid(), 'INDEX_TEST ' || j.id, (select min(id) from public.employee), now() " +
+                "from public.processing_jobs j where j.status = 'INDEX_TEST'");
+        jdbcTemplate.update("insert into public.accounting (job_id, action_type, order_id, create_date) " +
+                "select j.id, a.action_type, o.id, now() " +
+                "from public.processing_jobs j " +
+                "join public.employee_order o on o.description = 'INDEX_TEST ' || j.id " +
+                "cross join (values ('ISSUANCE'), ('RETURN')) a(action_type) " +
+                "where j.status = 'INDEX_TEST'");
+        jdbcTemplate.update("insert into public.tool_order_item (order_id, tool_id) " +
+                "select o.id, t.id from public.employee_order o cross join public.tool t " +
+                "where o.description like 'INDEX\\_TEST %'");
+        jdbcTemplate.update("insert into public.minio_file (package_id, created_at, bucket_name, file_path, file_name) " +
+                "select j.id, now(), b.bucket, 'index-test/' || j.id || '/' || b.bucket || '/' || f || '.jpg', f || '.jpg' " +
+                "from public.processing_jobs j " +
+                "cross join (values ('bucket-raw'), ('bucket-processed')) b(bucket) " +
+                "cross join generate_series(1, 10) f " +
+                "where j.status = 'INDEX_TEST'");
+        jdbcTemplate.update("insert into public.classification_result (job_id, tool_id, file_id, original_file_id, confidence, created_at) " +
+                "select m.package_id, t.id, m.id, m.id, 0.9, now() " +
+                "from public.minio_file m cross join (select id from public.tool order by id limit 4) t " +
+                "where m.file_path like 'index-test/%' and m.bucket_name = 'bucket-raw'");
+        for (String table : List.of("processing_jobs", "employee_order", "accounting", "tool_order_item", "minio_file", "classification_result")) {
+            jdbcTemplate.execute("analyze public." + table);
+        }
+
+        jobId = jdbcTemplate.queryForObject("select max(id) from public.processing_jobs where status = 'INDEX_TEST'", Long.class);
+        rawFileId = jdbcTemplate.queryForObject("select min(id) from public.minio_file where package_id = ? and bucket_name = 'bucket-raw'",
+                Long.class, jobId);
+        orderId = jdbcTemplate.queryForObject("select order_id from public.accounting where job_id = ? limit 1", UUID.class, jobId);
+    }
+
+    @Test
+    void hotQueriesUseForeignKeyIndexes() {
+        assertUsesIndex("job_id_tool_id_idx",
+                "select * from public.classification_result where job_id = " + jobId + " order by tool_id");
+        assertUsesIndex("original_file_id_idx",
+                "select * from public.classification_result where original_file_id = " + rawFileId);
+        assertUsesIndex("idx_minio_file_package_bucket",
+                "select * from public.minio_file where package_id = " + jobId + " and bucket_name = 'bucket-raw'");
+        assertUsesIndex("idx_accounting_order_action",
+                "select * from public.accounting where order_id = '" + orderId + "' and action_type = 'RETURN'");
+        assertUsesIndex("idx_accounting_job",
+                "select * from public.accounting where job_id = " + jobId);
+        assertUsesIndex("job_id_tool_id_idx",
+                "delete from public.classification_result where job_id in (" + jobId + ")");
+        assertUsesIndex("idx_tool_order_item_order_tool",
+                "select * from public.tool_order_item where order_id = '" + orderId + "'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), () -> "Ожидался " + index + " в плане:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain (analyze) " + sql, String.class));
+    }
+}
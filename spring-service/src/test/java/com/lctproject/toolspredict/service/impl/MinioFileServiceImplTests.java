@@ -0,0 +1,100 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.BucketType;
+import com.lctproject.toolspredict.dto.minio.UploadedObject;
+import com.lctproject.toolspredict.model.Job;
+import com.lctproject.toolspredict.model.MinioFile;
+import com.lctproject.toolspredict.repository.ProcessingJobsRepository;
+import com.lctproject.toolspredict.service.BulkDeletionService;
+import com.lctproject.toolspredict.service.MinioFileService;
+import com.lctproject.toolspredict.service.MinioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Transactional
+class MinioFileServiceImplTests {
+    @MockitoBean
+    private MinioService minioService;
+    @MockitoBean
+    private BulkDeletionService bulkDeletionService;
+    @Autowired
+    private MinioFileService minioFileService;
+    @Autowired
+    private ProcessingJobsRepository processingJobsRepository;
+    @Value("${integrations.minio.bucket.raw}")
+    private String bucketRaw;
+    @Value("${integrations.minio.limit}")
+    private int fileLimit;
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        job = processingJobsRepository.save(new Job().setStatus("TEST").setCreateDate(LocalDateTime.now()));
+        when(minioService.uploadFile(any(), eq(bucketRaw), anyString())).thenAnswer(invocation -> {
+            MockMultipartFile file = invocation.getArgument(0);
+            return new UploadedObject(job.getId() + "/" + file.getOriginalFilename(), file.getOriginalFilename(), file.getSize());
+        });
+    }
+
+    @Test
+    void extractedFramesDoNotCountTowardsFileLimit() {
+        minioFileService.create(bucketRaw, file("video.mp4"), job);
+        for (int i = 0; i < 16; i++) {
+            String key = job.getId() + "/video/frame" + i + ".jpg";
+            minioFileService.upload(bucketRaw, key, job, () -> new UploadedObject(key, key, 1));
+        }
+
+        minioFileService.create(bucketRaw, file("photo.jpg"), job);
+
+        assertEquals(18, minioFileService.getMinioFiles(job, BucketType.RAW).size());
+    }
+
+    @Test
+    void topLevelUploadsAreLimited() {
+        for (int i = 0; i < fileLimit; i++) minioFileService.create(bucketRaw, file("photo" + i + ".jpg"), job);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> minioFileService.create(bucketRaw, file("extra.jpg"), job));
+    }
+
+    @Test
+    void registersIngestedObjectByEtagWithoutDownloadingIt() {
+        when(minioService.rearrangeFile("inbox/" + job.getId() + "/video.mp4", job.getId())).thenReturn(job.getId() + "/video.mp4");
+
+        MinioFile registered = minioFileService.register(bucketRaw, "inbox/" + job.getId() + "/video.mp4", "abc123", 42L, job);
+
+        assertEquals(job.getId() + "/video.mp4", registered.getFilePath());
+        assertEquals("etag:abc123", registered.getContentHash());
+        verify(minioService, never()).computeSha256(anyString(), anyString());
+    }
+
+    @Test
+    void ingestedObjectsAreLimited() {
+        for (int i = 0; i < fileLimit; i++) minioFileService.create(bucketRaw, file("photo" + i + ".jpg"), job);
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> minioFileService.register(bucketRaw, "inbox/" + job.getId() + "/extra.jpg", "abc123", 42L, job));
+        verify(minioService, never()).rearrangeFile(anyString(), any());
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,171 @@
+package com.lctproject.toolspredict.service.impl;
+
+import com.lctproject.toolspredict.dto.OrderManifest;
+import com.lctproject.toolspredict.dto.ToolRequest;
+import com.lctproject.toolspredict.model.Order;
+import com.lctproject.toolspredict.repository.EmployeeRepository;
+import com.lctproject.toolspredict.repository.OrderRepository;
+import com.lctproject.toolspredict.service.ToolService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class ToolServiceImplTests {
+    private static final String NO_MARKING = "-";
+
+    @Autowired
+    private ToolService toolService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private Long toolA;
+    private Long toolB;
+    private Long toolC;
+    private Order order;
+
+    @BeforeEach
+    void seed() {
+        List<Long> tools = jdbcTemplate.queryForList("select id from public.tool order by id limit 3", Long.class);
+        toolA = tools.get(0);
+        toolB = tools.get(1);
+        toolC = tools.get(2);
+        Long employeeId = jdbcTemplate.queryForObject("select min(id) from public.employee", Long.class);
+        order = orderRepository.save(new Order()
+                .setId(UUID.randomUUID())
+                .setEmployee(employeeRepository.findById(employeeId).orElseThrow())
+                .setDescription("TOOL_SERVICE_TEST")
+                .setCreatedAt(LocalDateTime.now()));
+    }
+
+    @Test
+    void shrinkKeepsRequestedMarkingsAndDropsNewestOtherItems() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, "M1"), request(toolA, "M2"), request(toolA, null),
+                request(toolB, "B1")));
+
+        toolService.changeToolOrderItems(order, List.of(request(toolA, "M2"), request(toolA, null), request(toolB, "B1")));
+
+        assertEquals(Map.of(toolA, List.of("M1", "M2"), toolB, List.of("B1")), items());
+    }
+
+    @Test
+    void shrinkDropsItemsWithUnrequestedMarkingsFirst() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, null), request(toolA, "M1"), request(toolA, "M2")));
+
+        toolService.changeToolOrderItems(order, List.of(request(toolA, "M1")));
+
+        assertEquals(Map.of(toolA, List.of("M1")), items());
+    }
+
+    @Test
+    void shrinkNeverAddsItems() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, null)));
+
+        toolService.changeToolOrderItems(order, List.of(request(toolA, null), request(toolA, null), request(toolC, null)));
+
+        assertEquals(Map.of(toolA, List.of(NO_MARKING)), items());
+    }
+
+    @Test
+    void replaceAddsAndRemovesInOnePass() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, null), request(toolA, null), request(toolB, "B1")));
+
+        OrderManifest manifest = toolService.replaceToolOrderItems(order, List.of(request(toolA, null),
+                request(toolB, "B2"), request(toolC, null), request(toolC, "C1")));
+
+        Map<Long, List<String>> expected = Map.of(toolA, List.of(NO_MARKING), toolB, List.of("B2"), toolC, List.of(NO_MARKING, "C1"));
+        assertEquals(expected, items());
+        assertEquals(expected, manifestItems(manifest));
+        assertEquals(currentVersion(), manifest.version());
+    }
+
+    @Test
+    void replaceAddsOnlyMarkingsNotAlreadyOrdered() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, "M1")));
+
+        toolService.replaceToolOrderItems(order, List.of(request(toolA, "M1"), request(toolA, "M2")));
+
+        assertEquals(Map.of(toolA, List.of("M1", "M2")), items());
+    }
+
+    @Test
+    void replaceReusesMarkedItemsForUnmarkedRequests() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, "M1"), request(toolA, null), request(toolB, "B1")));
+        long version = currentVersion();
+
+        OrderManifest manifest = toolService.replaceToolOrderItems(order, List.of(request(toolA, null), request(toolA, null),
+                request(toolB, null)));
+
+        assertEquals(Map.of(toolA, List.of(NO_MARKING, "M1"), toolB, List.of("B1")), items());
+        assertEquals(version, manifest.version());
+    }
+
+    @Test
+    void replaceSkipsUnknownToolIds() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, null)));
+        long version = currentVersion();
+        Long unknown = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1000 from public.tool", Long.class);
+
+        OrderManifest manifest = toolService.replaceToolOrderItems(order, List.of(request(toolA, null), request(unknown, "X")));
+
+        assertEquals(Map.of(toolA, List.of(NO_MARKING)), items());
+        assertEquals(Map.of(toolA, List.of(NO_MARKING)), manifestItems(manifest));
+        assertEquals(version, manifest.version());
+    }
+
+    @Test
+    void unchangedReplaceKeepsManifestVersion() {
+        toolService.addToolOrderItems(order, List.of(request(toolA, "M1"), request(toolB, null)));
+        long version = currentVersion();
+
+        OrderManifest manifest = toolService.replaceToolOrderItems(order, List.of(request(toolB, null), request(toolA, "M1")));
+
+        assertEquals(version, manifest.version());
+        assertEquals(Map.of(toolA, List.of("M1"), toolB, List.of(NO_MARKING)), manifestItems(manifest));
+    }
+
+    private Map<Long, List<String>> items() {
+        Map<Long, List<String>> items = new TreeMap<>();
+        jdbcTemplate.query("select tool_id, coalesce(marking, ?) from public.tool_order_item where order_id = ?",
+                row -> {
+                    items.computeIfAbsent(row.getLong(1), key -> new ArrayList<>()).add(row.getString(2));
+                }, NO_MARKING, order.getId());
+        items.values().forEach(markings -> markings.sort(null));
+        return items;
+    }
+
+    private Map<Long, List<String>> manifestItems(OrderManifest manifest) {
+        return manifest.tools().stream().collect(Collectors.toMap(tool -> tool.tool().getId(), tool -> {
+            List<String> markings = new ArrayList<>(tool.markings());
+            while (markings.size() < tool.count()) markings.add(NO_MARKING);
+            markings.sort(null);
+            return markings;
+        }));
+    }
+
+    private long currentVersion() {
+        return jdbcTemplate.queryForObject("select manifest_version from public.employee_order where id = ?",
+                Long.class, order.getId());
+    }
+
+    private static ToolRequest request(Long toolId, String marking) {
+        return new ToolRequest(toolId, marking);
+    }
+}